@@ -8,17 +8,24 @@ import { useAuth } from '../../contexts/AuthContext';
 
 interface ArticleCardProps {
   article: Article;
-  onLikeToggle?: () => void;
+  // Liked state fetched in bulk by the list page; when given, the card skips its own lookup
+  initialLiked?: boolean;
+  // Called with the new state once the server has toggled the like
+  onLikeToggle?: (liked: boolean) => void;
 }
 
-export function ArticleCard({ article, onLikeToggle }: ArticleCardProps) {
+export function ArticleCard({ article, initialLiked, onLikeToggle }: ArticleCardProps) {
   const { user } = useAuth();
-  const [liked, setLiked] = useState(false);
+  const [liked, setLiked] = useState(initialLiked ?? false);
   const [likeCount, setLikeCount] = useState(article.likeCount || 0);
 
   useEffect(() => {
     // If user is logged in, check if they've already liked this article
     const checkLikeStatus = async () => {
+      if (initialLiked !== undefined) {
+        setLiked(initialLiked);
+        return;
+      }
       if (user) {
         try {
           const response = await articlesApi.isLiked(article.id);
@@ -30,7 +37,7 @@ export function ArticleCard({ article, onLikeToggle }: ArticleCardProps) {
     };
 
     checkLikeStatus();
-  }, [article.id, user]);
+  }, [article.id, user, initialLiked]);
 
   // Update like count when article prop changes
   useEffect(() => {
@@ -48,13 +55,10 @@ export function ArticleCard({ article, onLikeToggle }: ArticleCardProps) {
       const response = await articlesApi.toggleLike(article.id);
       const isLiked = response.data.liked;
       setLiked(isLiked);
-
-      // Get the updated article to ensure accurate like count
-      const articleResponse = await articlesApi.getById(article.id);
-      setLikeCount(articleResponse.data.likeCount || 0);
+      setLikeCount(count => count + (isLiked ? 1 : -1));
 
       if (onLikeToggle) {
-        onLikeToggle();
+        onLikeToggle(isLiked);
       }
     } catch (error) {
       console.error('Failed to toggle like', error);
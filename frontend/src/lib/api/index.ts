@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { Article, Comment, AuthResponse } from '../../types';
+import { Article, ArticleSummary, Comment, AuthResponse, CursorPage } from '../../types';
 
 const API_URL = 'http://localhost:8080/api';
 
@@ -10,20 +10,31 @@ const apiClient = axios.create({
 
 // Articles API
 export const articlesApi = {
-  getAll: () => apiClient.get<Article[]>('/articles'),
-  getNewest: () => apiClient.get<Article[]>('/articles/newest'),
+  getAll: (cursor?: string, limit?: number) =>
+    apiClient.get<CursorPage<Article>>('/articles', { params: { cursor, limit } }),
+  getNewest: (cursor?: string, limit?: number) =>
+    apiClient.get<CursorPage<Article>>('/articles/newest', { params: { cursor, limit } }),
   getTrending: () => apiClient.get<Article[]>('/articles/trending'),
+  search: (q: string, limit?: number) => apiClient.get<Article[]>('/articles/search', { params: { q, limit } }),
   getById: (id: number) => apiClient.get<Article>(`/articles/${id}`),
   create: (article: Omit<Article, 'id'>) => apiClient.post<Article>('/articles', article),
   update: (id: number, article: Partial<Article>) => apiClient.put<Article>(`/articles/${id}`, article),
   delete: (id: number) => apiClient.delete(`/articles/${id}`),
   toggleLike: (id: number) => apiClient.post(`/articles/${id}/like`),
   isLiked: (id: number) => apiClient.get(`/articles/${id}/isLiked`),
+  getLikedStates: (ids: number[]) =>
+    apiClient.get<{ liked: Record<number, boolean> }>('/articles/liked', { params: { ids: ids.join(',') } }),
+};
+
+// Admin API
+export const adminApi = {
+  getArticleSummary: () => apiClient.get<ArticleSummary>('/admin/articles/summary'),
 };
 
 // Comments API
 export const commentsApi = {
-  getByArticleId: (articleId: number) => apiClient.get<Comment[]>(`/comments/article/${articleId}`),
+  getByArticleId: (articleId: number, cursor?: string, limit?: number) =>
+    apiClient.get<CursorPage<Comment>>(`/comments/article/${articleId}`, { params: { cursor, limit } }),
   add: (articleId: number, content: string) =>
     apiClient.post<Comment>(`/comments/article/${articleId}`, { content }),
   delete: (commentId: number) => apiClient.delete(`/comments/${commentId}`),
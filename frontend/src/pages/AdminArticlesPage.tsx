@@ -6,21 +6,50 @@ import { AdminLayout } from '../components/layouts/AdminLayout';
 import { Article } from '../types';
 import { articlesApi } from '../lib/api';
 
+const PAGE_SIZE = 50;
+// The server caps search results at this many
+const SEARCH_LIMIT = 100;
+
 export function AdminArticlesPage() {
   const [articles, setArticles] = useState<Article[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const [searchTerm, setSearchTerm] = useState('');
+  // Server-side search results; null when no search term is entered
+  const [searchResults, setSearchResults] = useState<Article[] | null>(null);
 
   useEffect(() => {
     fetchArticles();
   }, []);
 
+  // Searches every article on the server, not just the pages loaded so far
+  useEffect(() => {
+    const term = searchTerm.trim();
+    if (!term) {
+      setSearchResults(null);
+      return;
+    }
+    const timer = setTimeout(async () => {
+      try {
+        const response = await articlesApi.search(term, SEARCH_LIMIT);
+        setSearchResults(response.data);
+        setError(null);
+      } catch (err) {
+        setError('Search failed. Please try again.');
+        console.error('Error searching articles:', err);
+      }
+    }, 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
   const fetchArticles = async () => {
     try {
       setLoading(true);
-      const response = await articlesApi.getAll();
-      setArticles(response.data);
+      const response = await articlesApi.getAll(undefined, PAGE_SIZE);
+      setArticles(response.data.items);
+      setNextCursor(response.data.nextCursor);
       setError(null);
     } catch (err) {
       setError('Failed to load articles. Please try again.');
@@ -30,6 +59,23 @@ export function AdminArticlesPage() {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) {
+      return;
+    }
+    try {
+      setLoadingMore(true);
+      const response = await articlesApi.getAll(nextCursor, PAGE_SIZE);
+      setArticles(prev => [...prev, ...response.data.items]);
+      setNextCursor(response.data.nextCursor);
+    } catch (err) {
+      setError('Failed to load more articles. Please try again.');
+      console.error('Error fetching articles:', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleDelete = async (id: number) => {
     if (!window.confirm('Are you sure you want to delete this article?')) {
       return;
@@ -39,17 +85,14 @@ export function AdminArticlesPage() {
       await articlesApi.delete(id);
       // Remove the deleted article from the state
       setArticles(articles.filter(article => article.id !== id));
+      setSearchResults(results => results && results.filter(article => article.id !== id));
     } catch (error) {
       console.error('Failed to delete article:', error);
       alert('Failed to delete the article. Please try again.');
     }
   };
 
-  const filteredArticles = articles.filter(article =>
-    article.title.toLowerCase().includes(searchTerm.toLowerCase()) ||
-    article.summary.toLowerCase().includes(searchTerm.toLowerCase()) ||
-    article.author.toLowerCase().includes(searchTerm.toLowerCase())
-  );
+  const filteredArticles = searchResults ?? articles;
 
   return (
     <AdminLayout>
@@ -164,6 +207,22 @@ export function AdminArticlesPage() {
               ))}
             </tbody>
           </table>
+          {searchResults !== null && searchResults.length >= SEARCH_LIMIT && (
+            <p className="p-4 text-sm text-gray-500 text-center border-t">
+              Showing the {SEARCH_LIMIT} best matches; refine the search to narrow them down.
+            </p>
+          )}
+          {searchResults === null && nextCursor && (
+            <div className="p-4 text-center border-t">
+              <button
+                onClick={loadMore}
+                disabled={loadingMore}
+                className="px-4 py-2 text-sm bg-gray-100 rounded-md hover:bg-gray-200 disabled:opacity-50"
+              >
+                {loadingMore ? 'Loading...' : 'Load more'}
+              </button>
+            </div>
+          )}
         </div>
       )}
     </AdminLayout>
@@ -2,7 +2,7 @@ import { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import { FaNewspaper, FaChartLine, FaHeart } from 'react-icons/fa';
 import { AdminLayout } from '../components/layouts/AdminLayout';
-import { articlesApi } from '../lib/api';
+import { adminApi, articlesApi } from '../lib/api';
 import { Article } from '../types';
 
 export function AdminDashboardPage() {
@@ -20,32 +20,20 @@ export function AdminDashboardPage() {
     const fetchDashboardData = async () => {
       try {
         setLoading(true);
-        const articlesResponse = await articlesApi.getAll();
-        const articles = articlesResponse.data;
-
-        // Get articles from the last 7 days
-        const oneWeekAgo = new Date();
-        oneWeekAgo.setDate(oneWeekAgo.getDate() - 7);
-
-        const recentArticlesList = articles.filter(
-          article => new Date(article.publishedAt) >= oneWeekAgo
-        );
-
-        // Calculate total likes
-        const totalLikes = articles.reduce((sum, article) => sum + (article.likeCount || 0), 0);
+        // Totals are counted by the server over all articles; the list only needs the newest five
+        const [summaryResponse, articlesResponse] = await Promise.all([
+          adminApi.getArticleSummary(),
+          articlesApi.getAll(undefined, 5),
+        ]);
+        const summary = summaryResponse.data;
 
         setStats({
-          totalArticles: articles.length,
-          recentArticles: recentArticlesList.length,
-          totalLikes: totalLikes,
+          totalArticles: summary.totalArticles,
+          recentArticles: summary.articlesThisWeek,
+          totalLikes: summary.totalLikes,
         });
 
-        // Get most recent articles (up to 5)
-        const sortedArticles = [...articles].sort(
-          (a, b) => new Date(b.publishedAt).getTime() - new Date(a.publishedAt).getTime()
-        );
-
-        setRecentArticles(sortedArticles.slice(0, 5));
+        setRecentArticles(articlesResponse.data.items);
       } catch (err) {
         setError('Failed to load dashboard data. Please try again.');
         console.error('Error fetching dashboard data:', err);
@@ -30,7 +30,7 @@ export function ArticleDetailPage() {
 
         // Fetch comments
         const commentsResponse = await commentsApi.getByArticleId(articleId);
-        setComments(commentsResponse.data);
+        setComments(commentsResponse.data.items);
 
         // Check if user has liked this article
         if (user) {
@@ -67,7 +67,7 @@ export function ArticleDetailPage() {
     if (!article) return;
     try {
       const response = await commentsApi.getByArticleId(article.id);
-      setComments(response.data);
+      setComments(response.data.items);
     } catch (error) {
       console.error('Failed to refresh comments', error);
     }
@@ -135,7 +135,7 @@ export function ArticleDetailPage() {
           </div>
 
           <div className="prose max-w-none">
-            {article.content.split('\n').map((paragraph, index) => (
+            {(article.content ?? '').split('\n').map((paragraph, index) => (
               <p key={index} className="mb-4">
                 {paragraph}
               </p>
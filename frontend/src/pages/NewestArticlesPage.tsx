@@ -3,9 +3,12 @@ import { ArticleCard } from '../components/ui/ArticleCard';
 import { Article } from '../types';
 import { articlesApi } from '../lib/api';
 import { MainLayout } from '../components/layouts/MainLayout';
+import { useAuth } from '../contexts/AuthContext';
 
 export function NewestArticlesPage() {
+  const { user } = useAuth();
   const [articles, setArticles] = useState<Article[]>([]);
+  const [likedStates, setLikedStates] = useState<Record<number, boolean>>({});
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
 
@@ -14,7 +17,7 @@ export function NewestArticlesPage() {
       try {
         setLoading(true);
         const response = await articlesApi.getNewest();
-        setArticles(response.data);
+        setArticles(response.data.items);
       } catch (err) {
         setError('Failed to load newest articles. Please try again later.');
         console.error('Error fetching newest articles:', err);
@@ -26,11 +29,28 @@ export function NewestArticlesPage() {
     fetchArticles();
   }, []);
 
+  // One request for the liked state of every card on the page
+  useEffect(() => {
+    if (!user || articles.length === 0) {
+      setLikedStates({});
+      return;
+    }
+    articlesApi.getLikedStates(articles.map(article => article.id))
+      .then(response => setLikedStates(response.data.liked))
+      .catch(err => console.error('Error fetching liked states:', err));
+  }, [articles, user]);
+
+  // The card has already updated its own count. Feed pages are cached and only pick up like
+  // counts when they expire, so refetching here would show the old count again.
+  const handleLikeToggle = (articleId: number, liked: boolean) => {
+    setLikedStates(states => ({ ...states, [articleId]: liked }));
+  };
+
   const handleRefresh = async () => {
     try {
       setLoading(true);
       const response = await articlesApi.getNewest();
-      setArticles(response.data);
+      setArticles(response.data.items);
       setError(null);
     } catch (err) {
       setError('Failed to refresh articles. Please try again later.');
@@ -75,7 +95,8 @@ export function NewestArticlesPage() {
               <ArticleCard
                 key={article.id}
                 article={article}
-                onLikeToggle={handleRefresh}
+                initialLiked={user ? likedStates[article.id] ?? false : undefined}
+                onLikeToggle={liked => handleLikeToggle(article.id, liked)}
               />
             ))}
           </div>
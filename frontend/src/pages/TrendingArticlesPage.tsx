@@ -3,9 +3,12 @@ import { ArticleCard } from '../components/ui/ArticleCard';
 import { Article } from '../types';
 import { articlesApi } from '../lib/api';
 import { MainLayout } from '../components/layouts/MainLayout';
+import { useAuth } from '../contexts/AuthContext';
 
 export function TrendingArticlesPage() {
+  const { user } = useAuth();
   const [articles, setArticles] = useState<Article[]>([]);
+  const [likedStates, setLikedStates] = useState<Record<number, boolean>>({});
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
 
@@ -26,6 +29,23 @@ export function TrendingArticlesPage() {
     fetchArticles();
   }, []);
 
+  // One request for the liked state of every card on the page
+  useEffect(() => {
+    if (!user || articles.length === 0) {
+      setLikedStates({});
+      return;
+    }
+    articlesApi.getLikedStates(articles.map(article => article.id))
+      .then(response => setLikedStates(response.data.liked))
+      .catch(err => console.error('Error fetching liked states:', err));
+  }, [articles, user]);
+
+  // The card has already updated its own count. Feed pages are cached and only pick up like
+  // counts when they expire, so refetching here would show the old count again.
+  const handleLikeToggle = (articleId: number, liked: boolean) => {
+    setLikedStates(states => ({ ...states, [articleId]: liked }));
+  };
+
   const handleRefresh = async () => {
     try {
       setLoading(true);
@@ -75,7 +95,8 @@ export function TrendingArticlesPage() {
               <ArticleCard
                 key={article.id}
                 article={article}
-                onLikeToggle={handleRefresh}
+                initialLiked={user ? likedStates[article.id] ?? false : undefined}
+                onLikeToggle={liked => handleLikeToggle(article.id, liked)}
               />
             ))}
           </div>
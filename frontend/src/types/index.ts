@@ -2,10 +2,13 @@ export interface Article {
   id: number;
   title: string;
   summary: string;
-  content: string;
+  // Only present on the detail endpoint; feed endpoints return cards without content
+  content?: string;
   author: string;
   publishedAt: string;
+  viewCount?: number;
   likeCount?: number;
+  commentCount?: number;
 }
 
 export interface Comment {
@@ -17,6 +20,18 @@ export interface Comment {
   createdAt: string;
 }
 
+// Totals over every article, for the admin dashboard
+export interface ArticleSummary {
+  totalArticles: number;
+  articlesThisWeek: number;
+  totalLikes: number;
+}
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
 export interface User {
   id: number;
   username: string;
@@ -0,0 +1,108 @@
+package com.example.inshorts.config;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Runs the deliberately slow hashing (register, login, hash upgrades) on its own small pool, so a
+// login storm uses at most that many cores and queues at most that many requests; beyond that,
+// callers are turned away at once instead of piling up on the request threads feed reads need.
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    // An AuthenticationServiceException, so a rejected login reaches the failure handler rather than
+    // being reported as bad credentials
+    public static class HashingBusyException extends AuthenticationServiceException {
+        public HashingBusyException(String message) {
+            super(message);
+        }
+    }
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final LongAdder rejections = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueSize, long timeoutMillis) {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Only inspects the stored hash's prefix and cost, no hashing
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    // Called by Spring on context close (inferred destroy method)
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new HashingBusyException("Password hashing is saturated");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Still queued: drop it so the pool doesn't spend time on an answer nobody waits for
+            future.cancel(false);
+            rejections.increment();
+            throw new HashingBusyException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new HashingBusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
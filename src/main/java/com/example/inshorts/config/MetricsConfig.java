@@ -0,0 +1,108 @@
+package com.example.inshorts.config;
+
+import com.example.inshorts.service.ContentCacheService;
+import com.example.inshorts.service.FeedSnapshotService;
+import com.example.inshorts.service.LiveEventService;
+import com.example.inshorts.service.RateLimitService;
+import com.example.inshorts.service.ReadThroughCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Application metrics on top of what Actuator already binds (http.server.requests per controller
+// method, tasks.scheduled.execution per @Scheduled job, Hikari pool gauges, Hibernate statistics)
+@Configuration
+public class MetricsConfig {
+
+    // Static, so it is in place before the DataSource is created. Only the "dataSource" bean is
+    // wrapped: with a read replica the pools behind it are beans too and would count twice.
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        ? new QueryCounter.CountingDataSource(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(new QueryCounter.CountingIntegrator()));
+    }
+
+    // Outermost, so queries made while authenticating the request are counted too
+    @Bean
+    public FilterRegistrationBean<QueryMetricsFilter> queryMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryMetricsFilter> registration = new FilterRegistrationBean<>(new QueryMetricsFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder contentCacheMetrics(ContentCacheService contentCacheService) {
+        return registry -> {
+            for (ReadThroughCache<?, ?> cache : contentCacheService.getCaches()) {
+                Tags tags = Tags.of("cache", cache.stats().name());
+                Gauge.builder("inshorts.cache.size", cache, c -> c.stats().size()).tags(tags).register(registry);
+                FunctionCounter.builder("inshorts.cache.hits", cache, c -> c.stats().hits()).tags(tags).register(registry);
+                FunctionCounter.builder("inshorts.cache.misses", cache, c -> c.stats().misses()).tags(tags).register(registry);
+                FunctionCounter.builder("inshorts.cache.evictions", cache, c -> c.stats().evictions()).tags(tags).register(registry);
+                FunctionCounter.builder("inshorts.cache.invalidations", cache, c -> c.stats().invalidations()).tags(tags).register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder liveEventMetrics(LiveEventService liveEventService) {
+        return registry -> {
+            Gauge.builder("inshorts.live.subscribers", liveEventService, LiveEventService::getSubscriberCount).register(registry);
+            FunctionCounter.builder("inshorts.live.dropped.events", liveEventService, LiveEventService::getDroppedEvents).register(registry);
+            FunctionCounter.builder("inshorts.live.evicted.subscribers", liveEventService, LiveEventService::getEvictedSubscribers).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimitService rateLimitService) {
+        return registry -> {
+            for (String policy : rateLimitService.getPolicies()) {
+                for (String scope : RateLimitService.SCOPES) {
+                    FunctionCounter.builder("inshorts.ratelimit.rejected", rateLimitService, s -> s.getRejections(policy, scope))
+                            .tags("policy", policy, "scope", scope).register(registry);
+                }
+            }
+            Gauge.builder("inshorts.ratelimit.buckets", rateLimitService, RateLimitService::getBucketCount).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder feedSnapshotMetrics(FeedSnapshotService feedSnapshotService) {
+        return registry -> {
+            FunctionCounter.builder("inshorts.feed.snapshot.rebuilds", feedSnapshotService, FeedSnapshotService::getRebuilds).register(registry);
+            Gauge.builder("inshorts.feed.snapshot.bytes", feedSnapshotService, FeedSnapshotService::getSnapshotBytes).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(BoundedPasswordEncoder passwordEncoder) {
+        return registry -> {
+            Gauge.builder("inshorts.password.hashing.queued", passwordEncoder, BoundedPasswordEncoder::getQueued).register(registry);
+            Gauge.builder("inshorts.password.hashing.active", passwordEncoder, BoundedPasswordEncoder::getActive).register(registry);
+            FunctionCounter.builder("inshorts.password.hashing.rejected", passwordEncoder, BoundedPasswordEncoder::getRejections).register(registry);
+        };
+    }
+}
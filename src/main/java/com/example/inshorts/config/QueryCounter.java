@@ -0,0 +1,138 @@
+package com.example.inshorts.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Per-thread counts of the SQL statements executed, and of the entity loads and collection fetches
+// done by Hibernate. Statements are counted on the DataSource, so Hibernate, JdbcTemplate and
+// native queries all show up. QueryMetricsFilter resets the counts at the start of each request
+// and records them at the end.
+public final class QueryCounter {
+
+    public record Counts(int statements, int entityLoads, int collectionFetches) {}
+
+    // The counts of the finished request, for tests and debugging
+    public static final String REQUEST_ATTRIBUTE = QueryCounter.class.getName() + ".counts";
+
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+    private static final int COLLECTION_FETCHES = 2;
+
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[3]);
+    private static final ThreadLocal<String> FIRST_STATEMENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        int[] counts = COUNTS.get();
+        counts[STATEMENTS] = 0;
+        counts[ENTITY_LOADS] = 0;
+        counts[COLLECTION_FETCHES] = 0;
+        FIRST_STATEMENT.remove();
+    }
+
+    // The SQL of the first statement executed on this thread since reset(), e.g. to EXPLAIN it in a test
+    public static String firstStatement() {
+        return FIRST_STATEMENT.get();
+    }
+
+    public static Counts current() {
+        int[] counts = COUNTS.get();
+        return new Counts(counts[STATEMENTS], counts[ENTITY_LOADS], counts[COLLECTION_FETCHES]);
+    }
+
+    // Wraps the application's DataSource; every execute* call on a statement from its connections counts once
+    static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return countingConnection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return countingConnection(super.getConnection(username, password));
+        }
+    }
+
+    private static Connection countingConnection(Connection target) {
+        // ConnectionProxy lets Spring's DataSourceUtils see through to the pooled connection
+        return (Connection) Proxy.newProxyInstance(QueryCounter.class.getClassLoader(),
+                new Class<?>[] {ConnectionProxy.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "getTargetConnection" -> target;
+                    case "prepareStatement", "prepareCall", "createStatement" -> {
+                        Statement statement = (Statement) invoke(target, method, args);
+                        yield countingStatement(statement, args != null && args.length > 0 && args[0] instanceof String sql ? sql : null);
+                    }
+                    default -> invoke(target, method, args);
+                });
+    }
+
+    private static Statement countingStatement(Statement target, String preparedSql) {
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(QueryCounter.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        String sql = preparedSql != null ? preparedSql
+                                : args != null && args.length > 0 && args[0] instanceof String direct ? direct : null;
+                        if (COUNTS.get()[STATEMENTS]++ == 0) {
+                            FIRST_STATEMENT.set(sql);
+                        }
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Appends listeners that count entity loads and lazy collection initializations
+    static class CountingIntegrator implements Integrator {
+
+        private final PostLoadEventListener postLoadListener = event -> COUNTS.get()[ENTITY_LOADS]++;
+        private final InitializeCollectionEventListener collectionListener = event -> COUNTS.get()[COLLECTION_FETCHES]++;
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_LOAD, postLoadListener);
+            registry.appendListeners(EventType.INIT_COLLECTION, collectionListener);
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.inshorts.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Records how many statements, entity loads and collection fetches each request caused,
+// tagged by the matched URI pattern so an N+1 shows up as a growing per-endpoint count
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryCounter.Counts counts = QueryCounter.current();
+            request.setAttribute(QueryCounter.REQUEST_ATTRIBUTE, counts);
+
+            // Unmatched requests (static files, 404s) share one tag to keep cardinality bounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN");
+            record("inshorts.request.statements", tags, counts.statements());
+            record("inshorts.request.entity.loads", tags, counts.entityLoads());
+            record("inshorts.request.collection.fetches", tags, counts.collectionFetches());
+        }
+    }
+
+    private void record(String name, Tags tags, int amount) {
+        DistributionSummary.builder(name).tags(tags).register(meterRegistry).record(amount);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.inshorts.config;
+
+import com.example.inshorts.service.RateLimitService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    // Right after the security filter chain, so the authenticated user is available
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitService rateLimitService,
+                                                                   @Value("${inshorts.ratelimit.enabled:true}") boolean enabled) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(rateLimitService));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.inshorts.config;
+
+import com.example.inshorts.service.RateLimitService;
+import com.example.inshorts.service.UserPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+
+// Applies the write policies of RateLimitService. Runs after Spring Security, so the caller is
+// known, and before the DispatcherServlet, so a rejected write never reaches a controller.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Rule(HttpMethod method, PathPattern pattern, String policy) {}
+
+    private static final List<Rule> RULES = List.of(
+            new Rule(HttpMethod.POST, PathPatternParser.defaultInstance.parse("/api/articles/{id}/like"), RateLimitService.LIKE),
+            new Rule(HttpMethod.POST, PathPatternParser.defaultInstance.parse("/api/comments/article/{articleId}"), RateLimitService.COMMENT));
+
+    private final RateLimitService rateLimitService;
+
+    public RateLimitFilter(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String policy = findPolicy(request);
+        if (policy != null) {
+            Long userId = UserPrincipal.currentUserId(SecurityContextHolder.getContext().getAuthentication());
+            RateLimitService.Rejection rejection = rateLimitService.tryAcquire(policy, userId, request.getRemoteAddr());
+            if (rejection != null) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(rejection.retryAfterSeconds()));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\":\"Too many requests\"}");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String findPolicy(HttpServletRequest request) {
+        PathContainer path = null;
+        for (Rule rule : RULES) {
+            if (rule.method().matches(request.getMethod())) {
+                if (path == null) {
+                    path = PathContainer.parsePath(request.getRequestURI());
+                }
+                if (rule.pattern().matches(path)) {
+                    return rule.policy();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.inshorts.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Keeps a client on the primary while the replica may still lag behind its own writes. Any
+// non-GET request runs entirely on the primary and sets a short-lived cookie; reads that carry a
+// fresh cookie stay on the primary too. The cookie, rather than server-side state, carries the
+// window, so it holds whichever instance serves the next request.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "inshorts-rw";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final int windowSeconds;
+
+    public ReadYourWritesFilter(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write) {
+            // Set up front; the response may be committed by the time the write finishes
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis() + windowSeconds * 1000L));
+            cookie.setPath("/");
+            cookie.setMaxAge(windowSeconds);
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+
+        ReplicaRoutingDataSource.pinToPrimary(write || wroteRecently(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.pinToPrimary(false);
+        }
+    }
+
+    private static boolean wroteRecently(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.inshorts.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends connections for read-only transactions to the replica and everything else (writes, reads
+// outside a transaction, scheduled jobs) to the primary. A request can pin itself to the primary,
+// which is how ReadYourWritesFilter keeps a client's reads consistent with its own recent writes.
+// Must sit behind a LazyConnectionDataSourceProxy, so the target is picked when the first statement
+// runs, after the transaction has been marked read-only.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> pinnedToPrimary = new ThreadLocal<>();
+
+    public static void pinToPrimary(boolean pinned) {
+        if (pinned) {
+            pinnedToPrimary.set(Boolean.TRUE);
+        } else {
+            pinnedToPrimary.remove();
+        }
+    }
+
+    public static Target currentTarget() {
+        boolean replica = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && pinnedToPrimary.get() == null;
+        return replica ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentTarget();
+    }
+}
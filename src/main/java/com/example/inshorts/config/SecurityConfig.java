@@ -1,28 +1,48 @@
 package com.example.inshorts.config;
 
+import com.example.inshorts.service.TokenService;
+import com.example.inshorts.service.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // The JSON API. tokenServiceProvider holds a TokenService only in the stateless mode
+    // (inshorts.security.tokens.enabled), which applies to this chain alone.
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, ObjectProvider<TokenService> tokenServiceProvider,
+                                                      ObjectMapper objectMapper) throws Exception {
+        TokenService tokenService = tokenServiceProvider.getIfAvailable();
         http
+            .securityMatcher("/api/**")
             .cors().and()
             .csrf().disable()
             .authorizeHttpRequests(auth -> auth
@@ -42,10 +62,27 @@ public class SecurityConfig {
                 .loginProcessingUrl("/api/auth/login")
                 .successHandler((request, response, authentication) -> {
                     response.setContentType("application/json");
-                    response.getWriter().write("{\"status\":\"success\",\"message\":\"Login successful\"}");
+                    if (tokenService == null) {
+                        response.getWriter().write("{\"status\":\"success\",\"message\":\"Login successful\"}");
+                        return;
+                    }
+                    TokenService.TokenPair tokens = tokenService.issue((UserPrincipal) authentication.getPrincipal());
+                    objectMapper.writeValue(response.getWriter(), Map.of(
+                            "status", "success",
+                            "message", "Login successful",
+                            "tokenType", "Bearer",
+                            "accessToken", tokens.accessToken(),
+                            "refreshToken", tokens.refreshToken(),
+                            "expiresIn", tokens.expiresIn()));
                 })
                 .failureHandler((request, response, exception) -> {
                     response.setContentType("application/json");
+                    if (exception instanceof BoundedPasswordEncoder.HashingBusyException) {
+                        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                        response.getWriter().write("{\"status\":\"error\",\"message\":\"Too many logins in progress, try again shortly\"}");
+                        return;
+                    }
                     response.setStatus(401);
                     response.getWriter().write("{\"status\":\"error\",\"message\":\"Invalid credentials\"}");
                 })
@@ -60,6 +97,55 @@ public class SecurityConfig {
                 .permitAll()
             );
 
+        // Stateless mode: the API creates and reads no HttpSession, so any node can serve any request
+        // and a restart logs nobody out. Logout is the client dropping its tokens.
+        if (tokenService != null) {
+            http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class);
+        }
+
+        return http.build();
+    }
+
+    // The Thymeleaf admin pages and actuator. These always keep a session, whichever mode the API
+    // uses: the pages log in with the /login form and the browser only carries the session cookie.
+    // A session started here also authenticates /api/** in the session mode.
+    @Bean
+    @Order(2)
+    public SecurityFilterChain webSecurityFilterChain(HttpSecurity http) throws Exception {
+        BasicAuthenticationEntryPoint actuatorEntryPoint = new BasicAuthenticationEntryPoint();
+        actuatorEntryPoint.setRealmName("inshorts");
+        http
+            .cors().and()
+            .csrf().disable()
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/login").permitAll()
+                // Health is open. The Prometheus scrape needs a MONITORING (or ADMIN) account, since
+                // it reveals traffic, URIs and pool sizes; other actuator endpoints are admin-only.
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/prometheus").hasAnyRole("MONITORING", "ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                // The admin pages and their forms require authentication
+                .anyRequest().authenticated()
+            )
+            .exceptionHandling(e -> e
+                // Pages redirect to the login form; actuator clients get a Basic challenge
+                .defaultAuthenticationEntryPointFor(actuatorEntryPoint, new AntPathRequestMatcher("/actuator/**"))
+                .defaultAuthenticationEntryPointFor(new LoginUrlAuthenticationEntryPoint("/login"), AnyRequestMatcher.INSTANCE)
+            )
+            // Scrapers can't fill in a form; Basic credentials are checked per request and start no session
+            .httpBasic(basic -> basic.authenticationEntryPoint(actuatorEntryPoint))
+            .formLogin(form -> form
+                .loginPage("/login")
+                .defaultSuccessUrl("/admin")
+                .permitAll()
+            )
+            .logout(logout -> logout
+                .logoutSuccessUrl("/login?logout")
+                .permitAll()
+            );
+
         return http.build();
     }
 
@@ -76,8 +162,18 @@ public class SecurityConfig {
         return source;
     }
 
+    // New hashes are stored as {bcrypt} at the configured strength. Hashes without a prefix predate
+    // the delegating encoder and are plain BCrypt; those, and any below the strength, are re-hashed on
+    // the next successful login (UserService.updatePassword).
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${inshorts.security.bcrypt-strength:10}") int strength,
+                                                  @Value("${inshorts.security.hashing.threads:0}") int threads,
+                                                  @Value("${inshorts.security.hashing.queue-size:64}") int queueSize,
+                                                  @Value("${inshorts.security.hashing.timeout-ms:5000}") long timeoutMillis) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, poolSize, queueSize, timeoutMillis);
     }
 }
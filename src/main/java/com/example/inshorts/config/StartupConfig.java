@@ -0,0 +1,44 @@
+package com.example.inshorts.config;
+
+import com.example.inshorts.controller.ArticleController;
+import com.example.inshorts.controller.CommentController;
+import jakarta.servlet.Filter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.ClassUtils;
+
+// What the prod profile (spring.main.lazy-initialization) still creates at startup. Admin,
+// reporting and import endpoints, Thymeleaf and most actuator endpoints wait for their first use.
+// Without the lazy-init property these filters have no effect.
+@Configuration
+public class StartupConfig {
+
+    // @Scheduled methods are registered when their bean is created, so a lazy job would never run
+    @Bean
+    static LazyInitializationExcludeFilter scheduledJobsStayEager() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasScheduledMethods(beanType);
+    }
+
+    // Spring Security's filter chain is otherwise built by the first request that passes through it
+    @Bean
+    static LazyInitializationExcludeFilter filtersStayEager() {
+        return LazyInitializationExcludeFilter.forBeanTypes(Filter.class, SecurityFilterChain.class);
+    }
+
+    // The public read path and the services behind it, so the first reader doesn't pay for creating them
+    @Bean
+    static LazyInitializationExcludeFilter readPathStaysEager() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ArticleController.class, CommentController.class);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(ClassUtils.getUserClass(beanType),
+                (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
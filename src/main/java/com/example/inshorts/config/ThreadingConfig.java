@@ -0,0 +1,32 @@
+package com.example.inshorts.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+// Reports which thread mode the app started in. spring.threads.virtual.enabled (set by the
+// virtual-threads profile) is silently ignored by Spring Boot below Java 21, so say so.
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsRequested;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadMode() {
+        if (!virtualThreadsRequested) {
+            logger.info("Request handling and scheduled jobs run on platform threads");
+        } else if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            logger.info("Request handling, scheduled jobs and async work run on virtual threads");
+        } else {
+            logger.warn("Virtual threads were requested but need Java 21+; running on platform threads ({})",
+                    JavaVersion.getJavaVersion());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.service.ArticleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Article totals for the admin dashboard; admin-only through the /api/admin/** rule in SecurityConfig
+@RestController
+@RequestMapping("/api/admin/articles")
+public class AdminArticleController {
+
+    @Autowired
+    private ArticleService articleService;
+
+    // { "totalArticles", "articlesThisWeek", "totalLikes" } over every article, not one page
+    @GetMapping("/summary")
+    public ArticleService.Summary getSummary() {
+        return articleService.getSummary();
+    }
+}
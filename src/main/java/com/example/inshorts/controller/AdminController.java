@@ -2,11 +2,19 @@ package com.example.inshorts.controller;
 
 import com.example.inshorts.model.Article;
 import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.ContentCacheService;
+import com.example.inshorts.service.ReportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -17,13 +25,46 @@ public class AdminController {
     @Autowired
     private ArticleService articleService;
 
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ContentCacheService contentCacheService;
+
     @GetMapping("/admin")
     public String getAdminDashboard(Model model) {
         List<Article> articles = articleService.getAllArticles();
         model.addAttribute("articles", articles);
+        model.addAttribute("cacheStats", contentCacheService.getStats());
         return "dashboard";
     }
 
+    @GetMapping("/admin/reports")
+    public String getReports(Model model) {
+        model.addAttribute("reports", reportService.listReports());
+        return "reports";
+    }
+
+    // Serves previously generated report files straight from the report directory
+    @GetMapping("/admin/reports/{fileName:.+}")
+    public ResponseEntity<Resource> downloadReport(@PathVariable String fileName) {
+        Optional<Path> file = reportService.findReportFile(fileName);
+        if (file.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        MediaType type = fileName.endsWith(".json") ? MediaType.APPLICATION_JSON : MediaType.parseMediaType("text/csv");
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(new FileSystemResource(file.get()));
+    }
+
+    // Login form for these pages; Spring Security handles the POST (SecurityConfig)
+    @GetMapping("/login")
+    public String loginPage() {
+        return "login";
+    }
+
     @GetMapping("/create")
     public String createArticleForm() {
         return "create";
@@ -40,7 +81,7 @@ public class AdminController {
 
     @GetMapping("/edit/{id}")
     public String editArticleForm(@PathVariable Long id, Model model) {
-        Optional<Article> articleOptional = articleService.getArticleById(id);
+        Optional<Article> articleOptional = articleService.findArticleById(id);
         if (articleOptional.isPresent()) {
             model.addAttribute("article", articleOptional.get());
             return "edit";
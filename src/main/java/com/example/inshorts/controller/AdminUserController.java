@@ -0,0 +1,39 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.model.User;
+import com.example.inshorts.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Set;
+
+// User role management; admin-only through the /api/admin/** rule in SecurityConfig
+@RestController
+@RequestMapping("/api/admin/users")
+public class AdminUserController {
+
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+
+    @Autowired
+    private UserService userService;
+
+    // Replaces the user's roles, e.g. ["USER", "ADMIN"]
+    @PutMapping("/{id}/roles")
+    public ResponseEntity<?> updateRoles(@PathVariable Long id, @RequestBody Set<String> roles) {
+        if (roles.isEmpty() || !ROLES.containsAll(roles)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Roles must be a non-empty subset of " + ROLES));
+        }
+        try {
+            User user = userService.updateRoles(id, roles);
+            return ResponseEntity.ok(Map.of("id", user.getId(), "username", user.getUsername(), "roles", user.getRoles()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package com.example.inshorts.controller;
 
 import com.example.inshorts.model.Article;
-import com.example.inshorts.model.User;
-import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.model.ArticleCard;
 import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.CursorPage;
+import com.example.inshorts.service.ContentVersionService;
+import com.example.inshorts.service.FeedSnapshotService;
+import com.example.inshorts.service.LiveEventService;
+import com.example.inshorts.service.PageCursor;
+import com.example.inshorts.service.SearchIndex;
+import com.example.inshorts.service.SearchService;
+import com.example.inshorts.service.UserPrincipal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -21,25 +37,104 @@ public class ArticleController {
     private ArticleService articleService;
 
     @Autowired
-    private UserRepository userRepository;
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private LiveEventService liveEventService;
+
+    @Autowired
+    private FeedSnapshotService feedSnapshotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @GetMapping
-    public List<Article> getAllArticles() {
-        return articleService.getAllArticles();
+    public ResponseEntity<?> getAllArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        return getNewestArticles(cursor, limit, request);
     }
 
     @GetMapping("/newest")
-    public List<Article> getNewestArticles() {
-        return articleService.getAllArticlesByNewest();
+    public ResponseEntity<?> getNewestArticles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        // The first page at the default size is the same for everyone and served pre-encoded
+        if ((cursor == null || cursor.isEmpty()) && PageCursor.pageSize(limit) == PageCursor.DEFAULT_PAGE_SIZE) {
+            FeedSnapshotService.Snapshot snapshot = feedSnapshotService.get(FeedSnapshotService.NEWEST);
+            if (request.checkNotModified(snapshot.etag())) {
+                return null; // 304 already written
+            }
+            return snapshotResponse(snapshot, request);
+        }
+        CursorPage<ArticleCard> page;
+        try {
+            page = articleService.getNewestArticles(cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Other pages are tagged by their encoded body, like the snapshots
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize feed page", e);
+        }
+        if (request.checkNotModified(FeedSnapshotService.etag(json))) {
+            return null; // 304 already written
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
     }
 
     @GetMapping("/trending")
-    public List<Article> getTrendingArticles() {
-        return articleService.getTrendingArticles();
+    public ResponseEntity<byte[]> getTrendingArticles(WebRequest request) {
+        FeedSnapshotService.Snapshot snapshot = feedSnapshotService.get(FeedSnapshotService.TRENDING);
+        if (request.checkNotModified(snapshot.etag())) {
+            return null; // 304 already written
+        }
+        return snapshotResponse(snapshot, request);
+    }
+
+    // Ranked full-text search over title, summary and content, e.g. /api/articles/search?q=election+results
+    @GetMapping("/search")
+    public List<ArticleCard> searchArticles(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return searchService.search(q, PageCursor.pageSize(limit));
+    }
+
+    // Title autocomplete; the last word may be partial, e.g. /api/articles/search/suggest?q=budget+ele
+    @GetMapping("/search/suggest")
+    public List<SearchIndex.Suggestion> suggestTitles(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return searchService.suggest(q, limit);
+    }
+
+    // Server-Sent Events: "article" when one is published, "counts" with coalesced like/comment counts
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        SseEmitter emitter = liveEventService.subscribe();
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        // Keep reverse proxies from buffering the stream
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Article> getArticleById(@PathVariable Long id) {
+    public ResponseEntity<Article> getArticleById(@PathVariable Long id, WebRequest request) {
+        // Conditional requests are answered from the version stamp, before the article is loaded
+        Optional<ContentVersionService.ArticleVersion> version = contentVersionService.findVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(version.get().articleEtag(id), version.get().lastModifiedMillis())) {
+            articleService.recordView(id);
+            return null; // 304 already written
+        }
+
         Optional<Article> article = articleService.getArticleById(id);
         return article.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -51,7 +146,7 @@ public class ArticleController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Article> updateArticle(@PathVariable Long id, @RequestBody Article articleDetails) {
-        Optional<Article> articleOptional = articleService.getArticleById(id);
+        Optional<Article> articleOptional = articleService.findArticleById(id);
         if (articleOptional.isPresent()) {
             Article article = articleOptional.get();
             article.setTitle(articleDetails.getTitle());
@@ -67,7 +162,7 @@ public class ArticleController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteArticle(@PathVariable Long id) {
-        if (articleService.getArticleById(id).isPresent()) {
+        if (articleService.findArticleById(id).isPresent()) {
             articleService.deleteArticle(id);
             return ResponseEntity.noContent().build();
         } else {
@@ -77,20 +172,12 @@ public class ArticleController {
 
     @PostMapping("/{id}/like")
     public ResponseEntity<?> toggleLike(@PathVariable Long id, Authentication authentication) {
-        if (authentication == null) {
-            return ResponseEntity.status(401).build();
-        }
-
-        // Get user from authentication
-        String username = authentication.getName();
-        Optional<User> userOpt = userRepository.findByUsername(username);
-
-        if (userOpt.isEmpty()) {
+        // User id comes straight from the authenticated principal
+        Long userId = UserPrincipal.currentUserId(authentication);
+        if (userId == null) {
             return ResponseEntity.status(401).build();
         }
 
-        Long userId = userOpt.get().getId();
-
         try {
             boolean liked = articleService.toggleLike(id, userId);
             return ResponseEntity.ok(Map.of("liked", liked));
@@ -99,23 +186,82 @@ public class ArticleController {
         }
     }
 
-    @GetMapping("/{id}/isLiked")
-    public ResponseEntity<?> isLikedByUser(@PathVariable Long id, Authentication authentication) {
-        if (authentication == null) {
-            return ResponseEntity.ok(Map.of("liked", false));
+    // Liked state for a page of cards in one call, e.g. /api/articles/liked?ids=1,2,3
+    @GetMapping("/liked")
+    public ResponseEntity<?> getLikedStates(@RequestParam List<Long> ids, Authentication authentication) {
+        if (ids.size() > PageCursor.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Too many ids"));
         }
 
-        // Get user from authentication
-        String username = authentication.getName();
-        Optional<User> userOpt = userRepository.findByUsername(username);
+        Map<Long, Boolean> liked = new LinkedHashMap<>();
+        ids.forEach(id -> liked.put(id, false));
 
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.ok(Map.of("liked", false));
+        Long userId = UserPrincipal.currentUserId(authentication);
+        if (userId != null) {
+            articleService.getLikedArticleIds(userId, ids).forEach(id -> liked.put(id, true));
         }
 
-        Long userId = userOpt.get().getId();
+        return ResponseEntity.ok(Map.of("liked", liked));
+    }
+
+    @GetMapping("/{id}/isLiked")
+    public ResponseEntity<?> isLikedByUser(@PathVariable Long id, Authentication authentication) {
+        Long userId = UserPrincipal.currentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.ok(Map.of("liked", false));
+        }
 
         boolean liked = articleService.isLikedByUser(id, userId);
         return ResponseEntity.ok(Map.of("liked", liked));
     }
+
+    // Writes the snapshot's bytes as they are, gzipped when it has them and the client accepts gzip
+    private static ResponseEntity<byte[]> snapshotResponse(FeedSnapshotService.Snapshot snapshot, WebRequest request) {
+        boolean gzip = snapshot.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] body = gzip ? snapshot.gzip() : snapshot.json();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // RFC 9110 Accept-Encoding: gzip when its weight (or the wildcard's) is above zero and not below
+    // identity's, so "gzip;q=0", "identity" and "gzip;q=0.5, identity" all get plain JSON
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double identity = null;
+        Double wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // A weight we can't read doesn't count as acceptance
+                        quality = 0;
+                    }
+                }
+            }
+            switch (name) {
+                case "gzip", "x-gzip" -> gzip = quality;
+                case "identity" -> identity = quality;
+                case "*" -> wildcard = quality;
+                default -> { }
+            }
+        }
+        double gzipQuality = gzip != null ? gzip : wildcard != null ? wildcard : 0;
+        double identityQuality = identity != null ? identity : wildcard != null ? wildcard : 1;
+        return gzipQuality > 0 && gzipQuality >= identityQuality;
+    }
 }
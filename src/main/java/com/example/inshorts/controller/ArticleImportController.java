@@ -0,0 +1,45 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.service.ArticleImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+// Bulk article import for editors; admin-only through the /api/admin/** rule in SecurityConfig.
+// The request body is streamed straight into the importer, never buffered whole.
+@RestController
+@RequestMapping("/api/admin/articles")
+public class ArticleImportController {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    @Autowired
+    private ArticleImportService articleImportService;
+
+    // One JSON object per line: {"title", "summary", "content", "author", "publishedAt"}
+    @PostMapping(path = "/import", consumes = NDJSON)
+    public ResponseEntity<?> importNdjson(InputStream body) throws IOException {
+        return importArticles(body, ArticleImportService.Format.NDJSON);
+    }
+
+    // Header row names the columns: title and content are required, summary, author and publishedAt optional
+    @PostMapping(path = "/import", consumes = CSV)
+    public ResponseEntity<?> importCsv(InputStream body) throws IOException {
+        return importArticles(body, ArticleImportService.Format.CSV);
+    }
+
+    private ResponseEntity<?> importArticles(InputStream body, ArticleImportService.Format format) throws IOException {
+        try {
+            return ResponseEntity.ok(articleImportService.importArticles(body, format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
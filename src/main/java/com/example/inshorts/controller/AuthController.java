@@ -1,8 +1,12 @@
 package com.example.inshorts.controller;
 
+import com.example.inshorts.config.BoundedPasswordEncoder;
 import com.example.inshorts.model.User;
+import com.example.inshorts.service.TokenService;
+import com.example.inshorts.service.UserPrincipal;
 import com.example.inshorts.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -20,6 +24,10 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    // Only present in the stateless mode (inshorts.security.tokens.enabled)
+    @Autowired(required = false)
+    private TokenService tokenService;
+
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody User user) {
         try {
@@ -32,6 +40,12 @@ public class AuthController {
             response.put("username", registeredUser.getUsername());
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (BoundedPasswordEncoder.HashingBusyException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "error");
+            response.put("message", "Too many registrations in progress, try again shortly");
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(response);
         } catch (RuntimeException e) {
             Map<String, Object> response = new HashMap<>();
             response.put("status", "error");
@@ -41,6 +55,28 @@ public class AuthController {
         }
     }
 
+    // Trades a refresh token for a new access and refresh token; the old refresh token stays valid until it expires
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshTokens(@RequestBody Map<String, String> body) {
+        if (tokenService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        TokenService.TokenPair tokens = tokenService.refresh(body.get("refreshToken"));
+        if (tokens == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                "status", "error",
+                "message", "Invalid or expired refresh token"
+            ));
+        }
+        return ResponseEntity.ok(Map.of(
+            "status", "success",
+            "tokenType", "Bearer",
+            "accessToken", tokens.accessToken(),
+            "refreshToken", tokens.refreshToken(),
+            "expiresIn", tokens.expiresIn()
+        ));
+    }
+
     @GetMapping("/user")
     public ResponseEntity<?> getCurrentUser(Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -51,6 +87,7 @@ public class AuthController {
         }
 
         Map<String, Object> userData = new HashMap<>();
+        userData.put("id", UserPrincipal.currentUserId(authentication));
         userData.put("username", authentication.getName());
         userData.put("roles", authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
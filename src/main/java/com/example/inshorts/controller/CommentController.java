@@ -1,15 +1,16 @@
 package com.example.inshorts.controller;
 
 import com.example.inshorts.model.Comment;
-import com.example.inshorts.model.User;
-import com.example.inshorts.repository.UserRepository;
 import com.example.inshorts.service.CommentService;
+import com.example.inshorts.service.ContentVersionService;
+import com.example.inshorts.service.CursorPage;
+import com.example.inshorts.service.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -21,11 +22,25 @@ public class CommentController {
     private CommentService commentService;
 
     @Autowired
-    private UserRepository userRepository;
+    private ContentVersionService contentVersionService;
 
     @GetMapping("/article/{articleId}")
-    public List<Comment> getCommentsByArticleId(@PathVariable Long articleId) {
-        return commentService.getCommentsByArticleId(articleId);
+    public ResponseEntity<CursorPage<Comment>> getCommentsByArticleId(
+            @PathVariable Long articleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        // Unchanged comment lists are answered with 304 from the article's comment version
+        Optional<ContentVersionService.ArticleVersion> version = contentVersionService.findVersion(articleId);
+        if (version.isPresent() && request.checkNotModified(
+                version.get().commentsEtag(articleId), version.get().lastModifiedMillis())) {
+            return null; // 304 already written
+        }
+        try {
+            return ResponseEntity.ok(commentService.getCommentsByArticleId(articleId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping("/article/{articleId}")
@@ -35,7 +50,8 @@ public class CommentController {
             Authentication authentication) {
 
         // For unauthenticated endpoints, we need to check if user is logged in
-        if (authentication == null) {
+        Long userId = UserPrincipal.currentUserId(authentication);
+        if (userId == null) {
             return ResponseEntity.status(401).build();
         }
 
@@ -44,17 +60,9 @@ public class CommentController {
             return ResponseEntity.badRequest().build();
         }
 
-        // Get user from authentication
-        String username = authentication.getName();
-        Optional<User> userOpt = userRepository.findByUsername(username);
-
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(401).build();
-        }
-
-        Long userId = userOpt.get().getId();
-
         Comment comment = commentService.addComment(articleId, userId, content);
+        // The comment only holds a reference to its user; answer with the principal's name instead of loading it
+        comment.setUsername(authentication.getName());
         return ResponseEntity.ok(comment);
     }
 
@@ -63,20 +71,11 @@ public class CommentController {
             @PathVariable Long commentId,
             Authentication authentication) {
 
-        if (authentication == null) {
+        Long userId = UserPrincipal.currentUserId(authentication);
+        if (userId == null) {
             return ResponseEntity.status(401).build();
         }
 
-        // Get user from authentication
-        String username = authentication.getName();
-        Optional<User> userOpt = userRepository.findByUsername(username);
-
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(401).build();
-        }
-
-        Long userId = userOpt.get().getId();
-
         try {
             commentService.deleteComment(commentId, userId);
             return ResponseEntity.noContent().build();
@@ -1,9 +1,6 @@
 package com.example.inshorts.model;
 
-import com.fasterxml.jackson.annotation.JsonIdentityInfo;
-import com.fasterxml.jackson.annotation.JsonIdentityReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -12,8 +9,11 @@ import java.util.Set;
 @Entity
 public class Article {
 
+    // Ids come from a pooled sequence rather than IDENTITY, so Hibernate knows them before the insert
+    // and can send inserts in JDBC batches; one round trip reserves a block of 50
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "article_seq")
+    @SequenceGenerator(name = "article_seq", sequenceName = "article_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -28,19 +28,39 @@ public class Article {
 
     private LocalDateTime publishedAt;
 
+    // Only written by ViewCountService's batched increments, never by entity saves
+    @Column(updatable = false)
     private int viewCount = 0;
 
+    // Denormalized like counter, only changed by atomic updates in ArticleLikeRepository
+    @Column(updatable = false)
+    private int likeCount = 0;
+
+    // Denormalized comment counter, only changed by atomic updates in CommentRepository
+    @Column(updatable = false)
+    private int commentCount = 0;
+
+    // Bumped by ContentVersionService on every change; backs ETag/Last-Modified for reads
+    @Column(updatable = false)
+    private long version = 0;
+
+    @Column(updatable = false)
+    private long commentVersion = 0;
+
+    @Column(updatable = false)
+    private LocalDateTime updatedAt;
+
+    // Served in pages by the comments endpoint, never embedded in the article
     @OneToMany(mappedBy = "article", cascade = CascadeType.ALL, orphanRemoval = true)
-    @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
-    @JsonIdentityReference(alwaysAsId = false)
+    @JsonIgnore
     private Set<Comment> comments = new HashSet<>();
 
     @ManyToMany(mappedBy = "likedArticles")
     @JsonIgnore
     private Set<User> likedByUsers = new HashSet<>();
 
-    // Calculated field for trending algorithm
-    @Transient
+    // Calculated field for trending algorithm, persisted by AnalyticsService
+    @Column(updatable = false)
     private double trendingScore;
 
     // Getters and Setters
@@ -104,6 +124,15 @@ public class Article {
         this.viewCount++;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @PrePersist
+    void onCreate() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public Set<Comment> getComments() {
         return comments;
     }
@@ -121,11 +150,19 @@ public class Article {
     }
 
     public int getLikeCount() {
-        return likedByUsers.size();
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
     }
 
     public int getCommentCount() {
-        return comments.size();
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
     }
 
     public double getTrendingScore() {
@@ -0,0 +1,16 @@
+package com.example.inshorts.model;
+
+import java.time.LocalDateTime;
+
+// Feed item projection: everything a list view shows, without content, comments or likes
+public record ArticleCard(
+        Long id,
+        String title,
+        String summary,
+        String author,
+        LocalDateTime publishedAt,
+        int viewCount,
+        int likeCount,
+        int commentCount
+) {
+}
@@ -20,14 +20,16 @@ public class Comment {
 
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnore
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "article_id", nullable = false)
     @JsonIgnore
     private Article article;
 
-    // Transient field for username to be included in JSON
+    // Transient field for username to be included in JSON; when set, it is used instead of
+    // loading the user (e.g. a new comment whose user is only a reference)
     @Transient
     private String username;
 
@@ -73,6 +75,9 @@ public class Comment {
     }
 
     public String getUsername() {
+        if (this.username != null) {
+            return this.username;
+        }
         return this.user != null ? this.user.getUsername() : null;
     }
 
@@ -0,0 +1,68 @@
+package com.example.inshorts.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Direct access to the article_likes join table, so like checks and toggles never
+// load a user's likedArticles collection
+@Repository
+public class ArticleLikeRepository {
+
+    // Package-private so QueryPlanTest can check them against the indexes
+    static final String EXISTS_SQL = "SELECT COUNT(*) FROM article_likes WHERE article_id = ? AND user_id = ?";
+    static final String DELETE_SQL = "DELETE FROM article_likes WHERE article_id = ? AND user_id = ?";
+    static final String ADJUST_COUNT_SQL = "UPDATE article SET like_count = like_count + ? WHERE id = ?";
+    static final String LIKED_IDS_SQL = "SELECT article_id FROM article_likes WHERE user_id = :userId AND article_id IN (:articleIds)";
+    static final String RECOUNT_SQL = "UPDATE article a SET like_count = (SELECT COUNT(*) FROM article_likes l WHERE l.article_id = a.id) " +
+            "WHERE a.id > ? AND a.id <= ? AND a.like_count <> (SELECT COUNT(*) FROM article_likes l WHERE l.article_id = a.id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public boolean exists(Long articleId, Long userId) {
+        Integer count = jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, articleId, userId);
+        return count != null && count > 0;
+    }
+
+    public void insert(Long articleId, Long userId) {
+        jdbcTemplate.update("INSERT INTO article_likes (user_id, article_id) VALUES (?, ?)", userId, articleId);
+    }
+
+    // Returns true if a like was removed
+    public boolean delete(Long articleId, Long userId) {
+        return jdbcTemplate.update(DELETE_SQL, articleId, userId) > 0;
+    }
+
+    // Which of the given articles the user has liked, in one query
+    public Set<Long> findLikedArticleIds(Long userId, Collection<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return Set.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("articleIds", articleIds);
+        List<Long> liked = namedParameterJdbcTemplate.queryForList(LIKED_IDS_SQL, params, Long.class);
+        return new HashSet<>(liked);
+    }
+
+    public void adjustLikeCount(Long articleId, int delta) {
+        jdbcTemplate.update(ADJUST_COUNT_SQL, delta, articleId);
+    }
+
+    // Recount the likes of articles with afterId < id <= toId from the join table, correcting any drift.
+    // One statement, so it commits on its own and only locks the rows in the range.
+    public int recountLikeCounts(Long afterId, Long toId) {
+        return jdbcTemplate.update(RECOUNT_SQL, afterId, toId);
+    }
+}
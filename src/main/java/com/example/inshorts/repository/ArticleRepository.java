@@ -1,29 +1,79 @@
 package com.example.inshorts.repository;
 
 import com.example.inshorts.model.Article;
+import com.example.inshorts.model.ArticleCard;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, Long> {
+    // Card projection shared by the feed queries; never touches content or the collections' rows
+    String CARD_SELECT = "SELECT new com.example.inshorts.model.ArticleCard(a.id, a.title, a.summary, a.author, " +
+            "a.publishedAt, a.viewCount, a.likeCount, a.commentCount) FROM Article a ";
+
     // Find articles ordered by publish date
     List<Article> findAllByOrderByPublishedAtDesc();
 
+    // Article for the detail view; comments are paged separately and counted by comment_count
+    @Query("SELECT a FROM Article a WHERE a.id = :id")
+    Optional<Article> findDetailById(@Param("id") Long id);
+
+    // Keyset pagination on (publishedAt, id), newest first
+    @Query(CARD_SELECT + "ORDER BY a.publishedAt DESC, a.id DESC")
+    List<ArticleCard> findNewestCards(Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE a.publishedAt < :publishedAt OR (a.publishedAt = :publishedAt AND a.id < :id) " +
+           "ORDER BY a.publishedAt DESC, a.id DESC")
+    List<ArticleCard> findNewestCardsBefore(@Param("publishedAt") LocalDateTime publishedAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE a.id IN :ids")
+    List<ArticleCard> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Current like and comment counts, for live counter updates
+    @Query("SELECT a.id, a.likeCount, a.commentCount FROM Article a WHERE a.id IN :ids")
+    List<Object[]> findCountsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Article count, likes across all articles and articles published since the given time, in one row
+    @Query("SELECT COUNT(a), COALESCE(SUM(a.likeCount), 0), COALESCE(SUM(CASE WHEN a.publishedAt >= :since THEN 1 ELSE 0 END), 0) FROM Article a")
+    List<Object[]> summarize(@Param("since") LocalDateTime since);
+
     // Find articles published after a specific date
     List<Article> findByPublishedAtAfterOrderByPublishedAtDesc(LocalDateTime date);
 
     // Find articles with the highest view count
     List<Article> findTop10ByOrderByViewCountDesc();
 
-    // Custom query to find articles with most comments
-    @Query("SELECT a FROM Article a LEFT JOIN a.comments c GROUP BY a.id ORDER BY COUNT(c.id) DESC")
-    List<Article> findTopArticlesByCommentCount();
+    // Top-N cards by the denormalized counters, for reports
+    @Query(CARD_SELECT + "ORDER BY a.viewCount DESC, a.id")
+    List<ArticleCard> findTopCardsByViewCount(Pageable pageable);
+
+    @Query(CARD_SELECT + "ORDER BY a.likeCount DESC, a.id")
+    List<ArticleCard> findTopCardsByLikeCount(Pageable pageable);
+
+    // Counters for one chunk of the trending job, walking the table in id order
+    @Query("SELECT a.id, a.viewCount, a.likeCount, a.commentCount, a.publishedAt FROM Article a WHERE a.id > :afterId ORDER BY a.id")
+    List<Object[]> findEngagementChunk(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Full articles in id order, one chunk at a time, for rebuilding the search index
+    @Query("SELECT a FROM Article a WHERE a.id > :afterId ORDER BY a.id")
+    List<Article> findChunkAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Articles changed since a search index snapshot was taken
+    @Query("SELECT a FROM Article a WHERE a.updatedAt >= :since")
+    List<Article> findUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT a.id FROM Article a")
+    List<Long> findAllIds();
 
-    // Custom query to find articles with most likes
-    @Query("SELECT a FROM Article a LEFT JOIN a.likedByUsers u GROUP BY a.id ORDER BY COUNT(u.id) DESC")
-    List<Article> findTopArticlesByLikeCount();
+    // Persisted trending scores used to seed the in-memory trending index
+    @Query("SELECT a.id, a.trendingScore, a.publishedAt FROM Article a")
+    List<Object[]> findTrendingScores();
 }
@@ -1,13 +1,44 @@
 package com.example.inshorts.repository;
 
 import com.example.inshorts.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByArticleIdOrderByCreatedAtDesc(Long articleId);
-    int countByArticleId(Long articleId);
+    // Keyset pagination on (createdAt, id), newest first. Spelled out because the derived query joined
+    // article just to compare its id, which kept the planner off the (article_id, created_at) index
+    @Query("SELECT c FROM Comment c WHERE c.article.id = :articleId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findByArticleIdOrderByCreatedAtDescIdDesc(@Param("articleId") Long articleId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.article.id = :articleId AND " +
+           "(c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findByArticleIdBefore(@Param("articleId") Long articleId, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id, Pageable pageable);
+
+    // Keeps article.comment_count in step with inserts and deletes, without loading the article
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE article SET comment_count = comment_count + :delta WHERE id = :articleId", nativeQuery = true)
+    int adjustCommentCount(@Param("articleId") Long articleId, @Param("delta") int delta);
+
+    // Recount the comments of articles with afterId < id <= toId, correcting any drift
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE article a SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.article_id = a.id) " +
+                   "WHERE a.id > :afterId AND a.id <= :toId " +
+                   "AND a.comment_count <> (SELECT COUNT(*) FROM comments c WHERE c.article_id = a.id)", nativeQuery = true)
+    int recountCommentCounts(@Param("afterId") Long afterId, @Param("toId") Long toId);
+
+    // Most commented article ids with their counts, limited by the pageable
+    @Query("SELECT c.article.id, COUNT(c) FROM Comment c GROUP BY c.article.id ORDER BY COUNT(c) DESC")
+    List<Object[]> findTopCommentCounts(Pageable pageable);
 }
@@ -1,17 +1,21 @@
 package com.example.inshorts.service;
 
-import com.example.inshorts.model.Article;
+import com.example.inshorts.repository.ArticleLikeRepository;
 import com.example.inshorts.repository.ArticleRepository;
+import com.example.inshorts.repository.CommentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -20,38 +24,119 @@ public class AnalyticsService {
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private static final String UPDATE_SCORE_SQL = "UPDATE article SET trending_score = ? WHERE id = ?";
+    private static final int SCORE_BATCH_SIZE = 500;
+    private static final String MAX_ARTICLE_ID_SQL = "SELECT MAX(id) FROM article";
+
     @Autowired
     private ArticleRepository articleRepository;
 
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ArticleLikeRepository articleLikeRepository;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private FeedSnapshotService feedSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${inshorts.trending.chunk-size:1000}")
+    private int trendingChunkSize;
+
     // Calculate trending articles every hour
     @Scheduled(fixedRate = 3600000) // 1 hour
     public void calculateTrendingArticles() {
         logger.info("Calculating trending articles at {}", LocalDateTime.now().format(formatter));
 
-        List<Article> articles = articleRepository.findAll();
+        recountCounters();
 
-        // Calculate trending score for each article
-        // The formula: (views * 1) + (likes * 2) + (comments * 3)
-        for (Article article : articles) {
-            int views = article.getViewCount();
-            int likes = article.getLikedByUsers().size();
-            int comments = article.getComments().size();
+        LocalDateTime now = LocalDateTime.now();
+        int processed = 0;
+        Long afterId = 0L;
 
-            // Freshness factor (newer articles get a boost)
-            long daysOld = java.time.Duration.between(article.getPublishedAt(), LocalDateTime.now()).toDays();
-            double freshnessFactor = Math.max(0.5, 1.0 - (daysOld * 0.1)); // Decreases by 10% per day, min 50%
+        // Walk the article table in id order, one bounded chunk at a time. Each chunk costs
+        // one query for its counters no matter how much engagement it has.
+        while (true) {
+            List<Object[]> chunk = articleRepository.findEngagementChunk(afterId, PageRequest.ofSize(trendingChunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
 
-            // Calculate score
-            double score = ((views * 1) + (likes * 2) + (comments * 3)) * freshnessFactor;
+            List<Long> ids = new ArrayList<>(chunk.size());
+            for (Object[] row : chunk) {
+                ids.add((Long) row[0]);
+            }
+            // Calculate trending score for each article
+            // The formula: (views * 1) + (likes * 2) + (comments * 3)
+            List<TrendingService.Score> scores = new ArrayList<>(chunk.size());
+            for (Object[] row : chunk) {
+                Long id = (Long) row[0];
+                int views = ((Number) row[1]).intValue();
+                int likes = ((Number) row[2]).intValue();
+                int comments = ((Number) row[3]).intValue();
+                LocalDateTime publishedAt = (LocalDateTime) row[4];
+
+                // Freshness factor (newer articles get a boost)
+                double freshnessFactor = TrendingService.freshnessFactor(publishedAt, now);
+
+                // Calculate score
+                double score = ((views * TrendingService.VIEW_WEIGHT) + (likes * TrendingService.LIKE_WEIGHT)
+                        + (comments * TrendingService.COMMENT_WEIGHT)) * freshnessFactor;
+
+                scores.add(new TrendingService.Score(id, score, publishedAt));
+            }
 
-            // Update article's trending score
-            article.setTrendingScore(score);
+            // Persist scores and refresh the in-memory index
+            saveTrendingScores(scores);
+            trendingService.replaceAll(scores);
+
+            processed += chunk.size();
+            afterId = ids.get(ids.size() - 1);
         }
 
-        // Save updated scores
-        articleRepository.saveAll(articles);
+        logger.info("Finished calculating trending scores for {} articles", processed);
+        feedSnapshotService.rebuildAll();
+    }
+
+    // Correct any drift in the denormalized like and comment counters. Each id range is its own
+    // short transaction, so writers to other articles are never blocked behind a whole-table update.
+    private void recountCounters() {
+        Long maxId = jdbcTemplate.queryForObject(MAX_ARTICLE_ID_SQL, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        int likes = 0;
+        int comments = 0;
+        for (long afterId = 0; afterId < maxId; afterId += trendingChunkSize) {
+            long toId = Math.min(afterId + trendingChunkSize, maxId);
+            likes += articleLikeRepository.recountLikeCounts(afterId, toId);
+            comments += commentRepository.recountCommentCounts(afterId, toId);
+        }
+        if (likes > 0) {
+            logger.warn("Corrected like counts for {} articles", likes);
+        }
+        if (comments > 0) {
+            logger.warn("Corrected comment counts for {} articles", comments);
+        }
+    }
 
-        logger.info("Finished calculating trending scores for {} articles", articles.size());
+    private void saveTrendingScores(List<TrendingService.Score> scores) {
+        List<Object[]> batch = new ArrayList<>(scores.size());
+        for (TrendingService.Score score : scores) {
+            batch.add(new Object[]{score.score(), score.articleId()});
+        }
+        for (int from = 0; from < batch.size(); from += SCORE_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(UPDATE_SCORE_SQL, batch.subList(from, Math.min(from + SCORE_BATCH_SIZE, batch.size())));
+        }
     }
 
     // Generate daily report at midnight
@@ -60,38 +145,8 @@ public class AnalyticsService {
         logger.info("Generating daily analytics report at {}", LocalDateTime.now().format(formatter));
 
         try {
-            // Get data
-            List<Article> topViewedArticles = articleRepository.findTop10ByOrderByViewCountDesc();
-            List<Article> topLikedArticles = articleRepository.findTopArticlesByLikeCount();
-            List<Article> topCommentedArticles = articleRepository.findTopArticlesByCommentCount();
-
-            // Generate report file
-            String fileName = "report_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".txt";
-
-            try (FileWriter writer = new FileWriter(fileName)) {
-                writer.write("===== DAILY ANALYTICS REPORT =====\n");
-                writer.write("Generated on: " + LocalDateTime.now().format(formatter) + "\n\n");
-
-                writer.write("--- TOP 10 MOST VIEWED ARTICLES ---\n");
-                for (int i = 0; i < topViewedArticles.size(); i++) {
-                    Article article = topViewedArticles.get(i);
-                    writer.write((i + 1) + ". " + article.getTitle() + " - " + article.getViewCount() + " views\n");
-                }
-
-                writer.write("\n--- TOP 10 MOST LIKED ARTICLES ---\n");
-                for (int i = 0; i < Math.min(10, topLikedArticles.size()); i++) {
-                    Article article = topLikedArticles.get(i);
-                    writer.write((i + 1) + ". " + article.getTitle() + " - " + article.getLikedByUsers().size() + " likes\n");
-                }
-
-                writer.write("\n--- TOP 10 MOST COMMENTED ARTICLES ---\n");
-                for (int i = 0; i < Math.min(10, topCommentedArticles.size()); i++) {
-                    Article article = topCommentedArticles.get(i);
-                    writer.write((i + 1) + ". " + article.getTitle() + " - " + article.getComments().size() + " comments\n");
-                }
-            }
-
-            logger.info("Daily report generated successfully: {}", fileName);
+            ReportService.ReportEntry report = reportService.generateDailyReport();
+            logger.info("Daily report generated successfully: {}", report.files());
         } catch (IOException e) {
             logger.error("Error generating daily report", e);
         }
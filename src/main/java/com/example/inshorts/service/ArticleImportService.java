@@ -0,0 +1,348 @@
+package com.example.inshorts.service;
+
+import com.example.inshorts.model.Article;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Bulk article import from NDJSON or CSV. The body is read as a stream and rows are inserted in
+// JDBC batches, each batch in its own transaction, so memory stays flat however large the file is.
+// Invalid rows are skipped and reported with their line number; the valid rows around them are kept.
+@Service
+public class ArticleImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleImportService.class);
+
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_SUMMARY_LENGTH = 500;
+    private static final int MAX_AUTHOR_LENGTH = 255;
+
+    public enum Format { NDJSON, CSV }
+
+    public record RowError(long line, String error) {}
+
+    // errors holds at most inshorts.import.max-errors entries; failed counts every rejected row
+    public record ImportResult(int imported, int failed, List<RowError> errors) {}
+
+    // One NDJSON line, or one CSV record mapped by its header
+    record ImportRow(String title, String summary, String content, String author, String publishedAt) {}
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ContentCacheService contentCacheService;
+
+    @Value("${inshorts.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inshorts.import.max-errors:100}")
+    private int maxErrors;
+
+    // Throws IllegalArgumentException when the input can't be read at all, e.g. a CSV without a title column
+    public ImportResult importArticles(InputStream body, Format format) throws IOException {
+        long start = System.nanoTime();
+        Run run = new Run();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (format == Format.NDJSON) {
+            readNdjson(reader, run);
+        } else {
+            readCsv(reader, run);
+        }
+        run.flush();
+
+        // Imported articles are announced to feeds and search, but not pushed to live streams one by one
+        if (run.imported > 0) {
+            contentCacheService.articlesImported();
+        }
+        logger.info("Imported {} articles ({} rows rejected) in {} ms", run.imported, run.failed,
+                (System.nanoTime() - start) / 1_000_000);
+        return new ImportResult(run.imported, run.failed, run.errors);
+    }
+
+    private void readNdjson(BufferedReader reader, Run run) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ImportRow row;
+            try {
+                row = objectMapper.readValue(line, ImportRow.class);
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.add(lineNumber, row);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new IllegalArgumentException("CSV header must name a title column");
+        }
+
+        while (true) {
+            long lineNumber = csv.getLine();
+            List<String> fields;
+            try {
+                fields = csv.readRecord();
+            } catch (IllegalArgumentException e) {
+                // Nothing after an unbalanced quote can be split into records reliably
+                run.reject(lineNumber, e.getMessage());
+                break;
+            }
+            if (fields == null) {
+                break;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            if (fields.size() != header.size()) {
+                run.reject(lineNumber, "Expected " + header.size() + " fields, found " + fields.size());
+                continue;
+            }
+            run.add(lineNumber, new ImportRow(field(fields, columns, "title"), field(fields, columns, "summary"),
+                    field(fields, columns, "content"), field(fields, columns, "author"),
+                    field(fields, columns, "publishedat")));
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null ? fields.get(index) : null;
+    }
+
+    // The article for a valid row, or the reason it is rejected
+    private static Object toArticle(ImportRow row) {
+        if (row.title() == null || row.title().isBlank()) {
+            return "Title is required";
+        }
+        if (row.title().length() > MAX_TITLE_LENGTH) {
+            return "Title is longer than " + MAX_TITLE_LENGTH + " characters";
+        }
+        if (row.content() == null || row.content().isBlank()) {
+            return "Content is required";
+        }
+        if (row.summary() != null && row.summary().length() > MAX_SUMMARY_LENGTH) {
+            return "Summary is longer than " + MAX_SUMMARY_LENGTH + " characters";
+        }
+        if (row.author() != null && row.author().length() > MAX_AUTHOR_LENGTH) {
+            return "Author is longer than " + MAX_AUTHOR_LENGTH + " characters";
+        }
+
+        LocalDateTime publishedAt = LocalDateTime.now();
+        if (row.publishedAt() != null && !row.publishedAt().isBlank()) {
+            try {
+                publishedAt = parseTimestamp(row.publishedAt().trim());
+            } catch (DateTimeParseException e) {
+                return "publishedAt is not an ISO-8601 date-time: " + row.publishedAt();
+            }
+        }
+
+        Article article = new Article();
+        article.setTitle(row.title().trim());
+        article.setSummary(row.summary());
+        article.setContent(row.content());
+        article.setAuthor(row.author());
+        article.setPublishedAt(publishedAt);
+        return article;
+    }
+
+    // Local times are taken as server time, like publishedAt everywhere else; offsets are converted to it
+    private static LocalDateTime parseTimestamp(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+    }
+
+    // Progress of one import: the batch being filled and the tallies so far
+    private final class Run {
+
+        private final List<Article> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final List<RowError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        void add(long line, ImportRow row) {
+            Object result = toArticle(row);
+            if (result instanceof String error) {
+                reject(line, error);
+                return;
+            }
+            batch.add((Article) result);
+            batchLines.add(line);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String error) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, error));
+            }
+        }
+
+        // Ids come from the pooled sequence, so Hibernate groups the inserts into JDBC batches
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                    for (Article article : batch) {
+                        entityManager.persist(article);
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                for (Article article : batch) {
+                    trendingService.register(article.getId(), article.getPublishedAt());
+                    searchService.index(article);
+                }
+                imported += batch.size();
+            } catch (RuntimeException e) {
+                // The whole batch was rolled back; report its rows and carry on with the next one
+                entityManager.clear();
+                String error = "Could not insert batch: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                logger.warn("Import batch of {} rows failed", batch.size(), e);
+                for (Long line : batchLines) {
+                    reject(line, error);
+                }
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+    }
+
+    // RFC 4180 records: quoted fields may contain commas, doubled quotes and line breaks
+    private static final class CsvReader {
+
+        private final Reader in;
+        private long line = 1;
+        private int peeked = -2;
+
+        CsvReader(Reader in) {
+            this.in = in;
+        }
+
+        // Line on which the next record starts
+        long getLine() {
+            return line;
+        }
+
+        List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' && peek() == '\n') {
+                    // Handled with the '\n'
+                } else if (c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (peeked != -2) {
+                c = peeked;
+                peeked = -2;
+            } else {
+                c = in.read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) {
+                peeked = in.read();
+            }
+            return peeked;
+        }
+    }
+}
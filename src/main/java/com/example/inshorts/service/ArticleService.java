@@ -1,102 +1,207 @@
 package com.example.inshorts.service;
 
 import com.example.inshorts.model.Article;
-import com.example.inshorts.model.User;
+import com.example.inshorts.model.ArticleCard;
+import com.example.inshorts.repository.ArticleLikeRepository;
 import com.example.inshorts.repository.ArticleRepository;
-import com.example.inshorts.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ArticleService {
 
+    // Totals for the admin dashboard, computed by the database rather than from a page of articles
+    public record Summary(long totalArticles, long articlesThisWeek, long totalLikes) {}
+
     @Autowired
     private ArticleRepository articleRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private ArticleLikeRepository articleLikeRepository;
+
+    @Autowired
+    private ViewCountService viewCountService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private ContentCacheService contentCacheService;
+
+    @Autowired
+    private SearchService searchService;
 
+    @Autowired
+    private LiveEventService liveEventService;
+
+    @Autowired
+    private FeedSnapshotService feedSnapshotService;
+
+    // The pages every anonymous reader shares are also kept as encoded bytes
+    @PostConstruct
+    void registerFeedSnapshots() {
+        feedSnapshotService.register(FeedSnapshotService.NEWEST,
+                () -> loadNewestArticles(null, PageCursor.DEFAULT_PAGE_SIZE));
+        feedSnapshotService.register(FeedSnapshotService.TRENDING, this::loadTrendingArticles);
+    }
+
+    @Transactional(readOnly = true)
     public List<Article> getAllArticles() {
         return articleRepository.findAll();
     }
 
-    public List<Article> getAllArticlesByNewest() {
-        return articleRepository.findAllByOrderByPublishedAtDesc();
+    // Newest-first feed page; cost is independent of how deep the cursor is
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleCard> getNewestArticles(String cursor, Integer limit) {
+        int pageSize = PageCursor.pageSize(limit);
+        return contentCacheService.getFeedPage(cursor, pageSize, () -> loadNewestArticles(cursor, pageSize));
+    }
+
+    private CursorPage<ArticleCard> loadNewestArticles(String cursor, int pageSize) {
+        Pageable fetch = PageRequest.ofSize(pageSize + 1);
+        List<ArticleCard> fetched;
+        if (cursor == null || cursor.isEmpty()) {
+            fetched = articleRepository.findNewestCards(fetch);
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            fetched = articleRepository.findNewestCardsBefore(position.timestamp(), position.id(), fetch);
+        }
+        return CursorPage.of(fetched, pageSize, card -> new PageCursor(card.publishedAt(), card.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public Summary getSummary() {
+        Object[] row = articleRepository.summarize(LocalDateTime.now().minusDays(7)).get(0);
+        return new Summary(((Number) row[0]).longValue(), ((Number) row[2]).longValue(), ((Number) row[1]).longValue());
     }
 
-    public List<Article> getTrendingArticles() {
-        List<Article> articles = articleRepository.findAll();
-        // Sort by trending score (descending)
-        articles.sort((a1, a2) -> Double.compare(a2.getTrendingScore(), a1.getTrendingScore()));
-        // Return top 10 or all if less than 10
-        return articles.subList(0, Math.min(10, articles.size()));
+    @Transactional(readOnly = true)
+    public List<ArticleCard> getTrendingArticles() {
+        return loadTrendingArticles();
     }
 
+    private List<ArticleCard> loadTrendingArticles() {
+        // Top 10 ids come from the in-memory trending index; only those rows are loaded
+        List<Long> ids = trendingService.getTopArticleIds(10);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ArticleCard> byId = new HashMap<>();
+        for (ArticleCard card : articleRepository.findCardsByIdIn(ids)) {
+            byId.put(card.id(), card);
+        }
+
+        List<ArticleCard> cards = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ArticleCard card = byId.get(id);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Article> getArticleById(Long id) {
-        Optional<Article> articleOpt = articleRepository.findById(id);
-        // Increment view count when article is retrieved
-        articleOpt.ifPresent(article -> {
-            article.incrementViewCount();
-            articleRepository.save(article);
-        });
+        // Cached instances are shared between requests, so they are never modified afterwards;
+        // comments are not part of the detail view and stay unloaded
+        Optional<Article> articleOpt = Optional.ofNullable(
+                contentCacheService.getArticle(id, () -> articleRepository.findDetailById(id).orElse(null)));
+        articleOpt.ifPresent(article -> recordView(id));
         return articleOpt;
     }
 
+    // Record the view in memory; ViewCountService writes it back in batches. Also called for
+    // revisits answered with 304, which are views all the same.
+    public void recordView(Long id) {
+        viewCountService.recordView(id);
+        trendingService.recordView(id);
+    }
+
+    // Lookup for edits and deletes, which should not count as a view
+    @Transactional(readOnly = true)
+    public Optional<Article> findArticleById(Long id) {
+        return articleRepository.findById(id);
+    }
+
     public Article saveArticle(Article article) {
         if (article.getPublishedAt() == null) {
             article.setPublishedAt(LocalDateTime.now());
         }
-        return articleRepository.save(article);
+        boolean created = article.getId() == null;
+        Article saved = articleRepository.save(article);
+        trendingService.register(saved.getId(), saved.getPublishedAt());
+        contentVersionService.articleChanged(saved.getId());
+        contentCacheService.articleChanged(saved.getId());
+        searchService.index(saved);
+        if (created) {
+            liveEventService.articlePublished(saved);
+        }
+        return saved;
     }
 
     public void deleteArticle(Long id) {
         articleRepository.deleteById(id);
+        viewCountService.discard(id);
+        trendingService.remove(id);
+        contentCacheService.articleDeleted(id);
+        searchService.remove(id);
     }
 
+    @Transactional
     public boolean toggleLike(Long articleId, Long userId) {
-        Optional<Article> articleOpt = articleRepository.findById(articleId);
-        Optional<User> userOpt = userRepository.findById(userId);
-
-        if (articleOpt.isPresent() && userOpt.isPresent()) {
-            Article article = articleOpt.get();
-            User user = userOpt.get();
-
-            // Check if user already liked the article
-            boolean hasLiked = user.getLikedArticles().stream()
-                .anyMatch(likedArticle -> likedArticle.getId().equals(articleId));
-
-            if (hasLiked) {
-                // Unlike
-                user.getLikedArticles().removeIf(a -> a.getId().equals(articleId));
-                article.getLikedByUsers().removeIf(u -> u.getId().equals(userId));
-            } else {
-                // Like
-                user.getLikedArticles().add(article);
-                article.getLikedByUsers().add(user);
-            }
-
-            userRepository.save(user);
-            articleRepository.save(article);
-
-            return !hasLiked; // Return true if liked, false if unliked
+        boolean liked;
+        if (articleLikeRepository.delete(articleId, userId)) {
+            // Unlike
+            articleLikeRepository.adjustLikeCount(articleId, -1);
+            liked = false;
         } else {
-            throw new RuntimeException("Article or User not found");
+            // Like
+            try {
+                articleLikeRepository.insert(articleId, userId);
+            } catch (DuplicateKeyException e) {
+                // A concurrent request from the same user already liked it
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                throw new RuntimeException("Article or User not found");
+            }
+            articleLikeRepository.adjustLikeCount(articleId, 1);
+            liked = true;
         }
+
+        trendingService.recordLike(articleId, liked);
+        contentVersionService.articleChanged(articleId);
+        contentCacheService.likesChanged(articleId);
+        liveEventService.countsChanged(articleId);
+        return liked; // Return true if liked, false if unliked
     }
 
+    @Transactional(readOnly = true)
     public boolean isLikedByUser(Long articleId, Long userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            return user.getLikedArticles().stream()
-                .anyMatch(article -> article.getId().equals(articleId));
-        }
+        return articleLikeRepository.exists(articleId, userId);
+    }
 
-        return false;
+    // Liked state for a page of articles in one query
+    @Transactional(readOnly = true)
+    public Set<Long> getLikedArticleIds(Long userId, Collection<Long> articleIds) {
+        return articleLikeRepository.findLikedArticleIds(userId, articleIds);
     }
 }
@@ -1,13 +1,15 @@
 package com.example.inshorts.service;
 
-import com.example.inshorts.model.Article;
 import com.example.inshorts.model.Comment;
-import com.example.inshorts.model.User;
 import com.example.inshorts.repository.ArticleRepository;
 import com.example.inshorts.repository.CommentRepository;
 import com.example.inshorts.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,52 +27,94 @@ public class CommentService {
     @Autowired
     private UserRepository userRepository;
 
-    public List<Comment> getCommentsByArticleId(Long articleId) {
-        return commentRepository.findByArticleIdOrderByCreatedAtDesc(articleId);
-    }
+    @Autowired
+    private TrendingService trendingService;
 
-    public Comment addComment(Long articleId, Long userId, String content) {
-        Optional<Article> articleOpt = articleRepository.findById(articleId);
-        Optional<User> userOpt = userRepository.findById(userId);
+    @Autowired
+    private ContentVersionService contentVersionService;
 
-        if (articleOpt.isPresent() && userOpt.isPresent()) {
-            Comment comment = new Comment();
-            comment.setContent(content);
-            comment.setCreatedAt(LocalDateTime.now());
-            comment.setArticle(articleOpt.get());
-            comment.setUser(userOpt.get());
+    @Autowired
+    private ContentCacheService contentCacheService;
+
+    @Autowired
+    private LiveEventService liveEventService;
+
+    @Transactional(readOnly = true)
+    public CursorPage<Comment> getCommentsByArticleId(Long articleId, String cursor, Integer limit) {
+        int pageSize = PageCursor.pageSize(limit);
+        return contentCacheService.getCommentPage(articleId, cursor, pageSize,
+                () -> loadComments(articleId, cursor, pageSize));
+    }
 
-            return commentRepository.save(comment);
+    private CursorPage<Comment> loadComments(Long articleId, String cursor, int pageSize) {
+        Pageable fetch = PageRequest.ofSize(pageSize + 1);
+        List<Comment> fetched;
+        if (cursor == null || cursor.isEmpty()) {
+            fetched = commentRepository.findByArticleIdOrderByCreatedAtDescIdDesc(articleId, fetch);
         } else {
+            PageCursor position = PageCursor.decode(cursor);
+            fetched = commentRepository.findByArticleIdBefore(articleId, position.timestamp(), position.id(), fetch);
+        }
+        return CursorPage.of(fetched, pageSize, comment -> new PageCursor(comment.getCreatedAt(), comment.getId()));
+    }
+
+    // Article and user are only foreign keys here, so they are set as unloaded references;
+    // a missing row surfaces as a constraint violation on insert
+    @Transactional
+    public Comment addComment(Long articleId, Long userId, String content) {
+        Comment comment = new Comment();
+        comment.setContent(content);
+        comment.setCreatedAt(LocalDateTime.now());
+        comment.setArticle(articleRepository.getReferenceById(articleId));
+        comment.setUser(userRepository.getReferenceById(userId));
+
+        Comment saved;
+        try {
+            saved = commentRepository.save(comment);
+        } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Article or User not found");
         }
+        commentRepository.adjustCommentCount(articleId, 1);
+
+        trendingService.recordComment(articleId, true);
+        contentVersionService.commentsChanged(articleId);
+        contentCacheService.commentsChanged(articleId);
+        liveEventService.countsChanged(articleId);
+        return saved;
     }
 
+    @Transactional
     public void deleteComment(Long commentId, Long userId) {
         Optional<Comment> commentOpt = commentRepository.findById(commentId);
-        Optional<User> userOpt = userRepository.findById(userId);
 
         if (commentOpt.isEmpty()) {
             throw new RuntimeException("Comment not found");
         }
 
-        if (userOpt.isEmpty()) {
-            throw new RuntimeException("User not found");
-        }
-
         Comment comment = commentOpt.get();
-        User user = userOpt.get();
 
         // Allow deletion if:
         // 1. The user is the comment owner
-        // 2. The user has ADMIN role
+        // 2. The user has ADMIN role; read from the database rather than the login's authorities, so a
+        //    demoted admin loses it at once. Only moderation pays for the lookup, not authors.
         boolean isCommentOwner = comment.getUser().getId().equals(userId);
-        boolean isAdmin = user.getRoles() != null && user.getRoles().contains("ADMIN");
 
-        if (isCommentOwner || isAdmin) {
+        if (isCommentOwner || isAdmin(userId)) {
+            Long articleId = comment.getArticle().getId();
             commentRepository.delete(comment);
+            commentRepository.adjustCommentCount(articleId, -1);
+            trendingService.recordComment(articleId, false);
+            contentVersionService.commentsChanged(articleId);
+            contentCacheService.commentsChanged(articleId);
+            liveEventService.countsChanged(articleId);
         } else {
             throw new RuntimeException("Not authorized to delete this comment");
         }
     }
+
+    private boolean isAdmin(Long userId) {
+        return userRepository.findById(userId)
+                .map(user -> user.getRoles().contains("ADMIN"))
+                .orElse(false);
+    }
 }
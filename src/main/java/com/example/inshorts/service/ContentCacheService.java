@@ -0,0 +1,124 @@
+package com.example.inshorts.service;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.ArticleCard;
+import com.example.inshorts.model.Comment;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// Read-through caches for the read-heavy paths. Writers invalidate explicitly; the TTL only
+// bounds staleness for changes that don't invalidate (like counts on feed pages, views).
+// Misses load wherever the caller's transaction goes, so with a read replica most fills come from
+// it; only a client that just wrote is pinned to the primary (ReadYourWritesFilter). A fill from a
+// replica that still lags behind an invalidating write can keep the old value until the TTL expires.
+@Service
+public class ContentCacheService {
+
+    private record FeedPageKey(String cursor, int limit) {}
+
+    private record CommentPageKey(Long articleId, String cursor, int limit) {}
+
+    @Autowired
+    private FeedSnapshotService feedSnapshotService;
+
+    @Value("${inshorts.cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${inshorts.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private ReadThroughCache<Long, Article> articleDetails;
+    private ReadThroughCache<FeedPageKey, CursorPage<ArticleCard>> feedPages;
+    private ReadThroughCache<CommentPageKey, CursorPage<Comment>> commentPages;
+
+    @PostConstruct
+    void initCaches() {
+        long ttlMillis = ttlSeconds * 1000;
+        articleDetails = new ReadThroughCache<>("articleDetails", maxEntries, ttlMillis);
+        feedPages = new ReadThroughCache<>("feedPages", maxEntries, ttlMillis);
+        commentPages = new ReadThroughCache<>("commentPages", maxEntries, ttlMillis);
+    }
+
+    public Article getArticle(Long id, Supplier<Article> loader) {
+        return articleDetails.get(id, loader);
+    }
+
+    public CursorPage<ArticleCard> getFeedPage(String cursor, int limit, Supplier<CursorPage<ArticleCard>> loader) {
+        return feedPages.get(new FeedPageKey(cursor, limit), loader);
+    }
+
+    public CursorPage<Comment> getCommentPage(Long articleId, String cursor, int limit, Supplier<CursorPage<Comment>> loader) {
+        return commentPages.get(new CommentPageKey(articleId, cursor, limit), loader);
+    }
+
+    public void articleChanged(Long articleId) {
+        afterCommit(() -> {
+            articleDetails.invalidate(articleId);
+            feedPages.invalidateAll();
+            feedSnapshotService.feedChanged();
+        });
+    }
+
+    public void articleDeleted(Long articleId) {
+        afterCommit(() -> {
+            articleDetails.invalidate(articleId);
+            feedPages.invalidateAll();
+            feedSnapshotService.feedChanged();
+            commentPages.invalidateIf(key -> key.articleId().equals(articleId));
+        });
+    }
+
+    // Nothing cached can refer to an article that didn't exist yet, except the feed
+    public void articlesImported() {
+        afterCommit(() -> {
+            feedPages.invalidateAll();
+            feedSnapshotService.feedChanged();
+        });
+    }
+
+    // The comment pages list them, and the detail view and feed cards carry comment counts
+    public void commentsChanged(Long articleId) {
+        afterCommit(() -> {
+            commentPages.invalidateIf(key -> key.articleId().equals(articleId));
+            articleDetails.invalidate(articleId);
+            feedPages.invalidateAll();
+            feedSnapshotService.feedChanged();
+        });
+    }
+
+    // Like counts show on the detail view. Feed pages and snapshots pick them up when their TTL
+    // expires or the periodic refresh runs; rebuilding them on every like would defeat them, so
+    // the frontend keeps its own count after a toggle instead of refetching the feed.
+    public void likesChanged(Long articleId) {
+        afterCommit(() -> articleDetails.invalidate(articleId));
+    }
+
+    public List<ReadThroughCache.Stats> getStats() {
+        return List.of(articleDetails.stats(), feedPages.stats(), commentPages.stats());
+    }
+
+    public List<ReadThroughCache<?, ?>> getCaches() {
+        return List.of(articleDetails, feedPages, commentPages);
+    }
+
+    // Invalidating before commit would let a concurrent reader cache the old row again
+    private void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.inshorts.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+// Version stamps behind the per-article ETag/Last-Modified. They live in the article row so a
+// conditional GET can be answered from one primary-key lookup, before any entity is loaded, and
+// every node reads the same stamp. Feed ETags are computed from the response body instead.
+@Service
+public class ContentVersionService {
+
+    public record ArticleVersion(long version, long commentVersion, LocalDateTime updatedAt) {
+
+        public String articleEtag(Long articleId) {
+            return "a" + articleId + "-" + version + "-" + commentVersion;
+        }
+
+        public String commentsEtag(Long articleId) {
+            return "c" + articleId + "-" + commentVersion;
+        }
+
+        // -1 tells Spring to skip the Last-Modified check
+        public long lastModifiedMillis() {
+            return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Optional<ArticleVersion> findVersion(Long articleId) {
+        List<ArticleVersion> rows = jdbcTemplate.query(
+                "SELECT version, comment_version, updated_at FROM article WHERE id = ?",
+                (rs, rowNum) -> {
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    return new ArticleVersion(rs.getLong("version"), rs.getLong("comment_version"),
+                            updatedAt != null ? updatedAt.toLocalDateTime() : null);
+                },
+                articleId);
+        return rows.stream().findFirst();
+    }
+
+    public void articleChanged(Long articleId) {
+        jdbcTemplate.update("UPDATE article SET version = version + 1, updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), articleId);
+    }
+
+    public void commentsChanged(Long articleId) {
+        jdbcTemplate.update(
+                "UPDATE article SET comment_version = comment_version + 1, updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), articleId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.inshorts.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset-paginated list; nextCursor is null on the last page
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    // Builds a page from a query that fetched pageSize + 1 rows
+    public static <T> CursorPage<T> of(List<T> fetched, int pageSize, Function<T, PageCursor> cursorOf) {
+        if (fetched.size() <= pageSize) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, pageSize);
+        return new CursorPage<>(items, cursorOf.apply(items.get(pageSize - 1)).encode());
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.inshorts.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// The feed pages every anonymous reader gets (first page of the newest feed, the trending list),
+// rendered to JSON bytes once per change instead of once per request. Controllers write the bytes
+// as they are, gzipped ones to clients that accept them. Feed changes drop the snapshots and rebuild
+// them in the background; the trending job and a periodic refresh pick up counters, which change
+// too often to rebuild on every like.
+@Service
+public class FeedSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedSnapshotService.class);
+
+    public static final String NEWEST = "newest";
+    public static final String TRENDING = "trending";
+
+    // Same threshold as server.compression; smaller bodies don't gain from gzip
+    private static final int MIN_GZIP_BYTES = 2048;
+
+    // gzip is null when compression is off or the body is too small to bother
+    public record Snapshot(byte[] json, byte[] gzip, String etag) {}
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inshorts.feed.snapshot-gzip:true}")
+    private boolean gzipEnabled;
+
+    private final Map<String, Supplier<?>> sources = new ConcurrentHashMap<>();
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Bumped by every change; a build that started before the change is served once but not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    // Held while a snapshot is built, so one feed is never built twice at the same time. Not a
+    // monitor: builds query the database, which would pin a virtual thread to its carrier.
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final LongAdder rebuilds = new LongAdder();
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "feed-snapshots");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The loader returns what the endpoint would otherwise serialize for this feed
+    public void register(String name, Supplier<?> loader) {
+        sources.put(name, loader);
+    }
+
+    public Snapshot get(String name) {
+        Snapshot snapshot = snapshots.get(name);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        buildLock.lock();
+        try {
+            snapshot = snapshots.get(name);
+            return snapshot != null ? snapshot : build(name);
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    // Called after a committed change to the feeds; any number of changes in a row cost one rebuild
+    public void feedChanged() {
+        generation.incrementAndGet();
+        snapshots.clear();
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildQueued.set(false);
+                rebuildAll();
+            });
+        }
+    }
+
+    // Fresh counters for the cards; the trending job also calls this once the new ranking is in place
+    @Scheduled(fixedDelayString = "${inshorts.feed.snapshot-refresh-ms:60000}")
+    public void rebuildAll() {
+        for (String name : sources.keySet()) {
+            buildLock.lock();
+            try {
+                build(name);
+            } catch (RuntimeException e) {
+                // Requests build it themselves when they find no snapshot
+                snapshots.remove(name);
+                logger.error("Could not rebuild the {} feed snapshot", name, e);
+            } finally {
+                buildLock.unlock();
+            }
+        }
+    }
+
+    public long getRebuilds() {
+        return rebuilds.sum();
+    }
+
+    public long getSnapshotBytes() {
+        long bytes = 0;
+        for (Snapshot snapshot : snapshots.values()) {
+            bytes += snapshot.json().length + (snapshot.gzip() != null ? snapshot.gzip().length : 0);
+        }
+        return bytes;
+    }
+
+    @PreDestroy
+    public void stopRebuilder() {
+        rebuilder.shutdownNow();
+    }
+
+    // Callers hold buildLock
+    private Snapshot build(String name) {
+        Supplier<?> loader = sources.get(name);
+        if (loader == null) {
+            throw new IllegalArgumentException("Unknown feed " + name);
+        }
+        long startedAt = generation.get();
+        // Read-only loaders go to the replica when there is one; the periodic refresh bounds its lag
+        Object page = loader.get();
+        Snapshot snapshot = encode(page);
+        if (generation.get() == startedAt) {
+            snapshots.put(name, snapshot);
+        }
+        rebuilds.increment();
+        return snapshot;
+    }
+
+    private Snapshot encode(Object page) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize feed snapshot", e);
+        }
+        byte[] gzip = gzipEnabled && json.length >= MIN_GZIP_BYTES ? gzip(json) : null;
+        return new Snapshot(json, gzip, etag(json));
+    }
+
+    // Derived from the bytes themselves, so every node sends the same tag for the same body and a
+    // tag can never be paired with a body other than the one it was computed from
+    public static String etag(byte[] json) {
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        return "\"s" + Long.toHexString(crc.getValue()) + "-" + json.length + "\"";
+    }
+
+    // Compressed once per build, so the slowest level costs nothing per request
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.inshorts.service;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.ArticleCard;
+import com.example.inshorts.repository.ArticleRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Pushes newly published articles and like/comment counter updates to Server-Sent Events clients,
+// so the frontend doesn't have to poll the feed. Each client has a small bounded buffer; when a slow
+// client falls behind, its oldest events are dropped instead of queueing without limit. Counter
+// changes are coalesced: one event per interval lists the current counts of every article that changed.
+// A client that stops reading is disconnected, so it can't hold the threads that write to everyone else.
+@Service
+public class LiveEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveEventService.class);
+
+    public static final String ARTICLE_EVENT = "article";
+    public static final String COUNTS_EVENT = "counts";
+
+    public record CountsUpdate(long articleId, int likeCount, int commentCount) {}
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inshorts.live.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${inshorts.live.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${inshorts.live.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    // A client that loses this many events in a row, with no successful write in between, is disconnected
+    @Value("${inshorts.live.max-dropped-events:256}")
+    private int maxDroppedEvents;
+
+    // A write blocked longer than this (the client's TCP window is full) disconnects the client
+    @Value("${inshorts.live.send-timeout-ms:5000}")
+    private long sendTimeoutMillis;
+
+    // Dispatcher threads started to stand in for writes that are stuck until the connector's write timeout
+    @Value("${inshorts.live.max-detached-writers:64}")
+    private int maxDetachedWriters;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong nextEventId = new AtomicLong();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder evictedSubscribers = new LongAdder();
+
+    // Articles whose like or comment count changed since the last counts event
+    private final Set<Long> changedCounts = ConcurrentHashMap.newKeySet();
+
+    // Writes to clients happen here, never on the request thread that caused the event. The pool has
+    // dispatchThreads threads plus one for each detached write still blocked in the container.
+    private final ThreadPoolExecutor dispatcher;
+    private final int dispatchThreads;
+    private int detachedWriters;
+
+    public LiveEventService(@Value("${inshorts.live.dispatch-threads:4}") int dispatchThreads) {
+        this.dispatchThreads = dispatchThreads;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "live-events-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // A new stream, or null when the subscriber limit is reached
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    // Tests supply their own emitter here
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        return emitter;
+    }
+
+    public void articlePublished(Article article) {
+        ArticleCard card = new ArticleCard(article.getId(), article.getTitle(), article.getSummary(), article.getAuthor(),
+                article.getPublishedAt(), article.getViewCount(), article.getLikeCount(), 0);
+        afterCommit(() -> broadcast(ARTICLE_EVENT, card));
+    }
+
+    // Marks the article for the next counts event; any number of likes and comments in between cost one update
+    public void countsChanged(Long articleId) {
+        afterCommit(() -> changedCounts.add(articleId));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    public long getEvictedSubscribers() {
+        return evictedSubscribers.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${inshorts.live.counts-interval-ms:1000}")
+    public void publishCounts() {
+        if (changedCounts.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(changedCounts);
+        changedCounts.removeAll(ids);
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        List<CountsUpdate> updates = new ArrayList<>(ids.size());
+        for (Object[] row : articleRepository.findCountsByIdIn(ids)) {
+            updates.add(new CountsUpdate((Long) row[0], ((Number) row[1]).intValue(), ((Number) row[2]).intValue()));
+        }
+        if (!updates.isEmpty()) {
+            broadcast(COUNTS_EVENT, updates);
+        }
+    }
+
+    // Comment line that keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${inshorts.live.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        Event heartbeat = new Event(0, null, null);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(heartbeat);
+        }
+    }
+
+    // Tomcat's blocking write can't be interrupted and only gives up at the connector's write timeout,
+    // so a stalled write is left behind: its client gets no more events, and the pool gets a thread to
+    // replace the one it holds until the write returns
+    @Scheduled(fixedDelayString = "${inshorts.live.stall-check-interval-ms:1000}")
+    public void detachStalledWriters() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.detachIfStalled(now);
+        }
+    }
+
+    // Open streams count as active requests, so they are ended before Tomcat's graceful shutdown
+    // starts waiting; EventSource clients reconnect to another instance
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        for (Subscriber subscriber : subscribers) {
+            // complete() would wait behind a stalled write; the container aborts those connections
+            if (subscriber.close()) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stopDispatcher() {
+        dispatcher.shutdownNow();
+    }
+
+    private synchronized boolean addDispatcherThread() {
+        if (detachedWriters >= maxDetachedWriters) {
+            return false;
+        }
+        detachedWriters++;
+        dispatcher.setCorePoolSize(dispatchThreads + detachedWriters);
+        return true;
+    }
+
+    // The surplus thread exits once it is idle
+    private synchronized void removeDispatcherThread() {
+        detachedWriters--;
+        dispatcher.setCorePoolSize(dispatchThreads + detachedWriters);
+    }
+
+    // Serialized once, however many clients receive it
+    private void broadcast(String name, Object payload) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize {} event", name, e);
+            return;
+        }
+        Event event = new Event(nextEventId.incrementAndGet(), name, data);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    // Publishing before commit could announce an article or count a concurrent reader can't see yet
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // A null name marks a heartbeat
+    private record Event(long id, String name, String data) {
+        SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(Long.toString(id)).name(name).data(data);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        // Guarded by this; at most one dispatcher task drains a subscriber at a time
+        private final ArrayDeque<Event> buffer = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        // Disconnected by us rather than by the client; the drain completes the emitter once no write is
+        // in flight, and the subscriber stays registered until then so a stalled write is still watched
+        private boolean evicted;
+        private int droppedInARow;
+        // Start of the write in flight, or 0
+        private long sendStartedNanos;
+        // The write in flight was replaced by another dispatcher thread
+        private boolean detached;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    droppedEvents.increment();
+                    if (++droppedInARow > maxDroppedEvents) {
+                        // A full buffer means a drain is pending, and it finishes the eviction
+                        evict();
+                        return;
+                    }
+                }
+                buffer.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            dispatcher.execute(this::drain);
+        }
+
+        void detachIfStalled(long now) {
+            synchronized (this) {
+                if (sendStartedNanos == 0 || detached
+                        || now - sendStartedNanos < TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis)) {
+                    return;
+                }
+                if (!evicted) {
+                    logger.warn("Disconnecting a live events client whose write has been blocked for over {} ms", sendTimeoutMillis);
+                    evict();
+                }
+                // At the limit, the write keeps its thread; the next check tries again
+                detached = addDispatcherThread();
+            }
+        }
+
+        private void drain() {
+            boolean failed = false;
+            boolean finishClose = false;
+            boolean finishEviction = false;
+            while (!failed) {
+                Event next;
+                synchronized (this) {
+                    next = closed ? null : buffer.pollFirst();
+                    if (next == null) {
+                        draining = false;
+                        // A close() during the last write left the unregistering to us
+                        finishClose = closed;
+                        finishEviction = evicted;
+                        break;
+                    }
+                    sendStartedNanos = System.nanoTime();
+                }
+                try {
+                    emitter.send(next.toSse());
+                } catch (IOException | IllegalStateException e) {
+                    // Client disconnected; the container completes the emitter
+                    failed = true;
+                }
+                boolean wasDetached;
+                synchronized (this) {
+                    sendStartedNanos = 0;
+                    wasDetached = detached;
+                    detached = false;
+                    if (!failed) {
+                        droppedInARow = 0;
+                    }
+                }
+                if (wasDetached) {
+                    removeDispatcherThread();
+                }
+            }
+            if (failed) {
+                close();
+            } else if (finishClose) {
+                unregister();
+                if (finishEviction) {
+                    // The client reconnects and resumes from the newest events
+                    emitter.complete();
+                }
+            }
+        }
+
+        // Called with the lock held
+        private void evict() {
+            closed = true;
+            evicted = true;
+            buffer.clear();
+            evictedSubscribers.increment();
+        }
+
+        // False while a write is in flight; the drain unregisters once it returns
+        boolean close() {
+            synchronized (this) {
+                closed = true;
+                buffer.clear();
+                if (sendStartedNanos != 0) {
+                    return false;
+                }
+            }
+            unregister();
+            return true;
+        }
+
+        private void unregister() {
+            if (subscribers.remove(this)) {
+                subscriberCount.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.inshorts.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Admission control for write endpoints. Each policy limits every user on its own (anonymous callers
+// by address), and one shared per-address limit stops a script from spreading its writes over many
+// accounts. Rejected requests are turned away before they touch the services or the connection pool.
+@Service
+public class RateLimitService {
+
+    public static final String LIKE = "like";
+    public static final String COMMENT = "comment";
+
+    // Which limit ran out: the caller's own bucket for the policy, or the shared one for its address
+    public static final String USER_SCOPE = "user";
+    public static final String ADDRESS_SCOPE = "address";
+    public static final List<String> SCOPES = List.of(USER_SCOPE, ADDRESS_SCOPE);
+
+    public record Rejection(String policy, String scope, long retryAfterSeconds) {}
+
+    private final Map<String, TokenBucketLimiter> policies = new LinkedHashMap<>();
+    private final TokenBucketLimiter addressLimiter;
+    private final Map<String, LongAdder> rejections = new LinkedHashMap<>();
+
+    public RateLimitService(@Value("${inshorts.ratelimit.like.per-minute:60}") int likePerMinute,
+                            @Value("${inshorts.ratelimit.like.burst:20}") int likeBurst,
+                            @Value("${inshorts.ratelimit.comment.per-minute:10}") int commentPerMinute,
+                            @Value("${inshorts.ratelimit.comment.burst:5}") int commentBurst,
+                            @Value("${inshorts.ratelimit.address.per-minute:600}") int addressPerMinute,
+                            @Value("${inshorts.ratelimit.address.burst:100}") int addressBurst) {
+        policies.put(LIKE, new TokenBucketLimiter(LIKE, likePerMinute, likeBurst));
+        policies.put(COMMENT, new TokenBucketLimiter(COMMENT, commentPerMinute, commentBurst));
+        addressLimiter = new TokenBucketLimiter(ADDRESS_SCOPE, addressPerMinute, addressBurst);
+        for (String policy : policies.keySet()) {
+            for (String scope : SCOPES) {
+                rejections.put(policy + ":" + scope, new LongAdder());
+            }
+        }
+    }
+
+    // Null when the request may proceed
+    public Rejection tryAcquire(String policy, Long userId, String address) {
+        TokenBucketLimiter limiter = policies.get(policy);
+        if (limiter == null) {
+            throw new IllegalArgumentException("Unknown rate limit policy " + policy);
+        }
+        long now = System.nanoTime();
+        String scope = USER_SCOPE;
+        long waitNanos = limiter.tryAcquire(userId != null ? "u" + userId : "a" + address, now);
+        if (waitNanos == 0) {
+            scope = ADDRESS_SCOPE;
+            waitNanos = addressLimiter.tryAcquire(address, now);
+        }
+        if (waitNanos == 0) {
+            return null;
+        }
+        rejections.get(policy + ":" + scope).increment();
+        return new Rejection(policy, scope, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+    }
+
+    public Set<String> getPolicies() {
+        return policies.keySet();
+    }
+
+    public long getRejections(String policy, String scope) {
+        return rejections.get(policy + ":" + scope).sum();
+    }
+
+    public int getBucketCount() {
+        int count = addressLimiter.size();
+        for (TokenBucketLimiter limiter : policies.values()) {
+            count += limiter.size();
+        }
+        return count;
+    }
+
+    // Refilled buckets carry no state, so dropping them keeps memory proportional to recent writers
+    @Scheduled(fixedDelayString = "${inshorts.ratelimit.evict-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (TokenBucketLimiter limiter : policies.values()) {
+            limiter.evictIdle(now);
+        }
+        addressLimiter.evictIdle(now);
+    }
+}
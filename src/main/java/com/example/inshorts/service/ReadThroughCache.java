@@ -0,0 +1,110 @@
+package com.example.inshorts.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Small LRU + TTL cache with read-through loading and hit/miss/eviction counters.
+// Values must be safe to share between requests once loaded.
+public class ReadThroughCache<K, V> {
+
+    public record Stats(String name, int size, int maxSize, long hits, long misses, long evictions, long invalidations) {
+
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private record CachedValue<V>(V value, long expiresAt) {}
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<K, CachedValue<V>> entries;
+
+    // Bumped by every invalidation; a load that started before it is not stored
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ReadThroughCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<K, CachedValue<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                if (size() > ReadThroughCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Returns the cached value, or loads and caches it. A null from the loader is returned but not cached.
+    public V get(K key, Supplier<V> loader) {
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (this) {
+            CachedValue<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    hits.increment();
+                    return entry.value();
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        V value = loader.get();
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new CachedValue<>(value, now + ttlMillis));
+                }
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        generation++;
+        Iterator<K> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            if (predicate.test(it.next())) {
+                it.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(name, entries.size(), maxSize, hits.sum(), misses.sum(), evictions.sum(), invalidations.sum());
+    }
+}
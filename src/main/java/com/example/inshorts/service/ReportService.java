@@ -0,0 +1,225 @@
+package com.example.inshorts.service;
+
+import com.example.inshorts.model.ArticleCard;
+import com.example.inshorts.repository.ArticleRepository;
+import com.example.inshorts.repository.CommentRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
+
+    private static final String INDEX_FILE = "index.json";
+
+    // One generated report: its day, when it was written, and the files it produced
+    public record ReportEntry(LocalDate date, LocalDateTime generatedAt, List<String> files) {}
+
+    // A row in one of the report's top-N sections
+    public record ReportRow(String section, int rank, long articleId, String title, long count) {}
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inshorts.reports.dir:reports}")
+    private String reportDirectory;
+
+    @Value("${inshorts.reports.top-n:10}")
+    private int topN;
+
+    private Path reportDir;
+
+    // Newest first; mirrored to index.json so the list survives restarts
+    private final List<ReportEntry> index = new CopyOnWriteArrayList<>();
+
+    // A lock rather than synchronized: generation blocks on JDBC and file I/O, which would pin
+    // the carrier thread when the scheduled job runs on a virtual thread
+    private final ReentrantLock generationLock = new ReentrantLock();
+
+    @PostConstruct
+    void loadIndex() throws IOException {
+        reportDir = Paths.get(reportDirectory).toAbsolutePath();
+        Files.createDirectories(reportDir);
+        Path indexPath = reportDir.resolve(INDEX_FILE);
+        if (Files.exists(indexPath)) {
+            index.addAll(objectMapper.readValue(indexPath.toFile(), new TypeReference<List<ReportEntry>>() {}));
+        }
+    }
+
+    public List<ReportEntry> listReports() {
+        return List.copyOf(index);
+    }
+
+    // Resolve a download by name; only files recorded in the index are served
+    public Optional<Path> findReportFile(String fileName) {
+        for (ReportEntry entry : index) {
+            if (entry.files().contains(fileName)) {
+                Path file = reportDir.resolve(fileName);
+                return Files.exists(file) ? Optional.of(file) : Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    public ReportEntry generateDailyReport() throws IOException {
+        generationLock.lock();
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDateTime generatedAt = LocalDateTime.now();
+            List<ReportRow> rows = collectRows();
+
+            String baseName = "report_" + today;
+            String csvName = baseName + ".csv";
+            String jsonName = baseName + ".json";
+            writeCsv(reportDir.resolve(csvName), rows);
+            writeJson(reportDir.resolve(jsonName), generatedAt, rows);
+
+            ReportEntry entry = new ReportEntry(today, generatedAt, List.of(csvName, jsonName));
+            index.removeIf(existing -> existing.date().equals(today));
+            index.add(entry);
+            index.sort(Comparator.comparing(ReportEntry::date).reversed());
+            writeIndex();
+            return entry;
+        } finally {
+            generationLock.unlock();
+        }
+    }
+
+    // Each section is a single top-N query; nothing is loaded beyond the rows that are reported
+    private List<ReportRow> collectRows() {
+        PageRequest top = PageRequest.ofSize(topN);
+        List<ReportRow> rows = new ArrayList<>(topN * 3);
+
+        int rank = 1;
+        for (ArticleCard card : articleRepository.findTopCardsByViewCount(top)) {
+            rows.add(new ReportRow("most_viewed", rank++, card.id(), card.title(), card.viewCount()));
+        }
+
+        rank = 1;
+        for (ArticleCard card : articleRepository.findTopCardsByLikeCount(top)) {
+            rows.add(new ReportRow("most_liked", rank++, card.id(), card.title(), card.likeCount()));
+        }
+
+        List<Object[]> topCommented = commentRepository.findTopCommentCounts(top);
+        List<Long> ids = new ArrayList<>(topCommented.size());
+        for (Object[] row : topCommented) {
+            ids.add((Long) row[0]);
+        }
+        Map<Long, String> titles = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (ArticleCard card : articleRepository.findCardsByIdIn(ids)) {
+                titles.put(card.id(), card.title());
+            }
+        }
+        rank = 1;
+        for (Object[] row : topCommented) {
+            Long id = (Long) row[0];
+            rows.add(new ReportRow("most_commented", rank++, id, titles.get(id), ((Number) row[1]).longValue()));
+        }
+        return rows;
+    }
+
+    private void writeCsv(Path target, List<ReportRow> rows) throws IOException {
+        writeAtomically(target, writer -> {
+            writer.write("section,rank,article_id,title,count\n");
+            for (ReportRow row : rows) {
+                writer.write(row.section() + "," + row.rank() + "," + row.articleId() + ","
+                        + csvField(row.title()) + "," + row.count() + "\n");
+            }
+        });
+    }
+
+    private void writeJson(Path target, LocalDateTime generatedAt, List<ReportRow> rows) throws IOException {
+        Map<String, List<ReportRow>> sections = new LinkedHashMap<>();
+        for (ReportRow row : rows) {
+            sections.computeIfAbsent(row.section(), section -> new ArrayList<>()).add(row);
+        }
+
+        writeAtomically(target, writer -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(writer)) {
+                json.writeStartObject();
+                json.writeStringField("generatedAt", generatedAt.toString());
+                for (Map.Entry<String, List<ReportRow>> section : sections.entrySet()) {
+                    json.writeArrayFieldStart(section.getKey());
+                    for (ReportRow row : section.getValue()) {
+                        json.writeStartObject();
+                        json.writeNumberField("rank", row.rank());
+                        json.writeNumberField("articleId", row.articleId());
+                        json.writeStringField("title", row.title());
+                        json.writeNumberField("count", row.count());
+                        json.writeEndObject();
+                    }
+                    json.writeEndArray();
+                }
+                json.writeEndObject();
+            }
+        });
+    }
+
+    private void writeIndex() throws IOException {
+        writeAtomically(reportDir.resolve(INDEX_FILE), writer -> objectMapper.writeValue(writer, index));
+    }
+
+    private interface ReportWriter {
+        void write(Writer writer) throws IOException;
+    }
+
+    // Stream into a temp file through a buffered channel writer, then swap it into place
+    private void writeAtomically(Path target, ReportWriter content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8)) {
+            content.write(writer);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.debug("Wrote report file {}", target);
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
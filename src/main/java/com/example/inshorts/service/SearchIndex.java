@@ -0,0 +1,557 @@
+package com.example.inshorts.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Incremental inverted index over article title, summary and content. Every indexed version of an
+// article gets a new internal doc number, so posting lists only ever grow at the end and can be
+// stored as delta-encoded varints. Replaced and deleted docs are tombstoned and dropped by compact().
+// Reads share a read lock; updates take the write lock (not a monitor, so virtual threads never pin).
+public class SearchIndex {
+
+    public record Hit(long articleId, double score) {}
+
+    public record Suggestion(long articleId, String title) {}
+
+    // Field weights fold into one term frequency per doc, a simplified BM25F
+    public static final int TITLE_WEIGHT = 3;
+    public static final int SUMMARY_WEIGHT = 2;
+    public static final int CONTENT_WEIGHT = 1;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int SNAPSHOT_MAGIC = 0x494E5331; // "INS1"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "to", "was", "were", "with");
+
+    private static final int MIN_SUGGEST_PREFIX = 2;
+
+    // Doc number -> article; arrays grow by doubling
+    private long[] articleIds = new long[1024];
+    private long[] publishedAt = new long[1024]; // epoch seconds, Long.MIN_VALUE if unknown
+    private int[] docLengths = new int[1024];
+    private String[] titles = new String[1024];
+    // The content posting lists each live doc appears in, so tombstoning it can lower their live df
+    private PostingList[][] docTerms = new PostingList[1024][];
+    private int docCount;
+    private final BitSet deleted = new BitSet();
+    private long totalLength;
+
+    // Live doc number per article
+    private final Map<Long, Integer> liveDocs = new HashMap<>();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    // Title terms only, sorted so autocomplete can walk a prefix range
+    private final TreeMap<String, PostingList> titlePostings = new TreeMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Adds or replaces an article
+    public void index(long articleId, String title, String summary, String content, long publishedAtEpochSecond) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTokens(frequencies, title, TITLE_WEIGHT);
+        addTokens(frequencies, summary, SUMMARY_WEIGHT);
+        addTokens(frequencies, content, CONTENT_WEIGHT);
+        int length = 0;
+        for (int frequency : frequencies.values()) {
+            length += frequency;
+        }
+        Set<String> titleTerms = new HashSet<>(tokenize(title));
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(articleId);
+            int doc = newDoc(articleId, title, publishedAtEpochSecond, length);
+            PostingList[] terms = new PostingList[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                PostingList list = postings.computeIfAbsent(entry.getKey(), t -> new PostingList());
+                list.add(doc, entry.getValue());
+                terms[i++] = list;
+            }
+            docTerms[doc] = terms;
+            for (String term : titleTerms) {
+                titlePostings.computeIfAbsent(term, t -> new PostingList()).add(doc, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long articleId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long articleId) {
+        lock.readLock().lock();
+        try {
+            return liveDocs.containsKey(articleId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> indexedArticleIds() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(liveDocs.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Fraction of doc numbers that are tombstones
+    public double garbageRatio() {
+        lock.readLock().lock();
+        try {
+            return docCount == 0 ? 0.0 : (double) (docCount - liveDocs.size()) / docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // BM25 over all query terms, multiplied by a recency boost that halves every halfLifeSeconds:
+    // score * (1 + recencyWeight * 0.5^(age / halfLife))
+    public List<Hit> search(String query, int limit, long nowEpochSecond, double recencyWeight, long halfLifeSeconds) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int live = liveDocs.size();
+            if (live == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / live;
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                // Live df, kept current on every removal; counting tombstones would make the idf negative
+                int df = list.liveFrequency;
+                double idf = Math.log(1 + (live - df + 0.5) / (df + 0.5));
+                PostingList.Cursor cursor = list.cursor();
+                while (cursor.next()) {
+                    int doc = cursor.doc;
+                    if (deleted.get(doc)) {
+                        continue;
+                    }
+                    double tf = cursor.frequency;
+                    double norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                    scores.merge(doc, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            scores.forEach((doc, bm25) -> {
+                double score = bm25 * (1 + recencyWeight * recency(doc, nowEpochSecond, halfLifeSeconds));
+                if (top.size() < limit) {
+                    top.add(new Hit(articleIds[doc], score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Hit(articleIds[doc], score));
+                }
+            });
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::articleId));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Titles whose words cover the query: every complete word must appear and the last one may be
+    // a prefix. Newest articles first.
+    public List<Suggestion> suggest(String query, int limit) {
+        if (query == null || limit <= 0) {
+            return List.of();
+        }
+        List<String> terms = tokenize(query);
+        boolean endsInWord = !query.isEmpty() && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        String prefix = null;
+        if (endsInWord && !terms.isEmpty() && query.toLowerCase(Locale.ROOT).endsWith(terms.get(terms.size() - 1))) {
+            prefix = terms.get(terms.size() - 1);
+            terms = terms.subList(0, terms.size() - 1);
+        }
+        if (terms.isEmpty() && (prefix == null || prefix.length() < MIN_SUGGEST_PREFIX)) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = null;
+            for (String term : terms) {
+                BitSet docs = docsOf(titlePostings.get(term));
+                matches = intersect(matches, docs);
+            }
+            if (prefix != null) {
+                BitSet docs = new BitSet();
+                for (PostingList list : titlePostings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                    docs.or(docsOf(list));
+                }
+                matches = intersect(matches, docs);
+            }
+            matches.andNot(deleted);
+
+            List<Integer> docs = new ArrayList<>();
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                docs.add(doc);
+            }
+            docs.sort(Comparator.comparingLong((Integer doc) -> publishedAt[doc]).reversed());
+
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, docs.size()));
+            for (int doc : docs.subList(0, Math.min(limit, docs.size()))) {
+                suggestions.add(new Suggestion(articleIds[doc], titles[doc]));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Renumbers live docs densely and rewrites every posting list without tombstones
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            int[] remap = new int[docCount];
+            int next = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (deleted.get(doc)) {
+                    remap[doc] = -1;
+                } else {
+                    remap[doc] = next;
+                    articleIds[next] = articleIds[doc];
+                    publishedAt[next] = publishedAt[doc];
+                    docLengths[next] = docLengths[doc];
+                    titles[next] = titles[doc];
+                    next++;
+                }
+            }
+            for (int doc = 0; doc < docCount; doc++) {
+                if (remap[doc] >= 0) {
+                    docTerms[remap[doc]] = docTerms[doc];
+                }
+            }
+            Arrays.fill(titles, next, docCount, null);
+            Arrays.fill(docTerms, next, docCount, null);
+            docCount = next;
+            deleted.clear();
+            liveDocs.clear();
+            for (int doc = 0; doc < docCount; doc++) {
+                liveDocs.put(articleIds[doc], doc);
+            }
+            // In place, since docTerms refers to the lists themselves
+            postings.values().forEach(list -> list.remap(remap));
+            postings.values().removeIf(list -> list.docFrequency == 0);
+            titlePostings.values().forEach(list -> list.remap(remap));
+            titlePostings.values().removeIf(list -> list.docFrequency == 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void writeSnapshot(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(docCount);
+            for (int doc = 0; doc < docCount; doc++) {
+                out.writeLong(articleIds[doc]);
+                out.writeLong(publishedAt[doc]);
+                out.writeInt(docLengths[doc]);
+                out.writeBoolean(deleted.get(doc));
+                out.writeUTF(titles[doc] != null ? titles[doc] : "");
+            }
+            writePostings(out, postings);
+            writePostings(out, titlePostings);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static SearchIndex readSnapshot(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Not a search index snapshot, or an unsupported version");
+        }
+        SearchIndex index = new SearchIndex();
+        int docs = in.readInt();
+        for (int doc = 0; doc < docs; doc++) {
+            long articleId = in.readLong();
+            long published = in.readLong();
+            int length = in.readInt();
+            boolean isDeleted = in.readBoolean();
+            String title = in.readUTF();
+            index.newDoc(articleId, title, published, length);
+            if (isDeleted) {
+                index.deleteDoc(doc);
+            }
+        }
+        readPostings(in, index.postings);
+        readPostings(in, index.titlePostings);
+        index.linkDocTerms();
+        return index;
+    }
+
+    private static void writePostings(DataOutputStream out, Map<String, PostingList> lists) throws IOException {
+        out.writeInt(lists.size());
+        for (Map.Entry<String, PostingList> entry : lists.entrySet()) {
+            PostingList list = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeInt(list.docFrequency);
+            out.writeInt(list.lastDoc);
+            out.writeInt(list.size);
+            out.write(list.bytes, 0, list.size);
+        }
+    }
+
+    private static void readPostings(DataInputStream in, Map<String, PostingList> lists) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String term = in.readUTF();
+            PostingList list = new PostingList();
+            list.docFrequency = in.readInt();
+            list.lastDoc = in.readInt();
+            list.size = in.readInt();
+            list.bytes = new byte[Math.max(list.size, 8)];
+            in.readFully(list.bytes, 0, list.size);
+            lists.put(term, list);
+        }
+    }
+
+    private static void addTokens(Map<String, Integer> frequencies, String text, int weight) {
+        for (String token : tokenize(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private double recency(int doc, long nowEpochSecond, long halfLifeSeconds) {
+        if (publishedAt[doc] == Long.MIN_VALUE || halfLifeSeconds <= 0) {
+            return 0.0;
+        }
+        long age = Math.max(0, nowEpochSecond - publishedAt[doc]);
+        return Math.pow(0.5, (double) age / halfLifeSeconds);
+    }
+
+    private int newDoc(long articleId, String title, long publishedAtEpochSecond, int length) {
+        if (docCount == articleIds.length) {
+            int capacity = docCount * 2;
+            articleIds = Arrays.copyOf(articleIds, capacity);
+            publishedAt = Arrays.copyOf(publishedAt, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+        }
+        int doc = docCount++;
+        articleIds[doc] = articleId;
+        publishedAt[doc] = publishedAtEpochSecond;
+        docLengths[doc] = length;
+        titles[doc] = title;
+        liveDocs.put(articleId, doc);
+        totalLength += length;
+        return doc;
+    }
+
+    private void removeLocked(long articleId) {
+        Integer doc = liveDocs.remove(articleId);
+        if (doc != null) {
+            deleteDoc(doc);
+        }
+    }
+
+    private void deleteDoc(int doc) {
+        liveDocs.remove(articleIds[doc], doc);
+        deleted.set(doc);
+        totalLength -= docLengths[doc];
+        if (docTerms[doc] != null) {
+            for (PostingList list : docTerms[doc]) {
+                list.liveFrequency--;
+            }
+            docTerms[doc] = null;
+        }
+    }
+
+    // Snapshots store postings by term only; a restore rebuilds the per-doc lists and live dfs from them
+    private void linkDocTerms() {
+        int[] counts = new int[docCount];
+        for (PostingList list : postings.values()) {
+            PostingList.Cursor cursor = list.cursor();
+            while (cursor.next()) {
+                if (!deleted.get(cursor.doc)) {
+                    counts[cursor.doc]++;
+                }
+            }
+        }
+        for (int doc = 0; doc < docCount; doc++) {
+            docTerms[doc] = deleted.get(doc) ? null : new PostingList[counts[doc]];
+            counts[doc] = 0;
+        }
+        for (PostingList list : postings.values()) {
+            list.liveFrequency = 0;
+            PostingList.Cursor cursor = list.cursor();
+            while (cursor.next()) {
+                if (!deleted.get(cursor.doc)) {
+                    docTerms[cursor.doc][counts[cursor.doc]++] = list;
+                    list.liveFrequency++;
+                }
+            }
+        }
+    }
+
+    private static BitSet docsOf(PostingList list) {
+        BitSet docs = new BitSet();
+        if (list != null) {
+            PostingList.Cursor cursor = list.cursor();
+            while (cursor.next()) {
+                docs.set(cursor.doc);
+            }
+        }
+        return docs;
+    }
+
+    private static BitSet intersect(BitSet current, BitSet docs) {
+        if (current == null) {
+            return docs;
+        }
+        current.and(docs);
+        return current;
+    }
+
+    // Doc numbers (as gaps from the previous one) and frequencies, both as unsigned varints
+    static final class PostingList {
+
+        byte[] bytes = new byte[8];
+        int size;
+        int lastDoc = -1;
+        // Every doc in the list, tombstoned or not
+        int docFrequency;
+        // Docs not yet tombstoned; maintained for content postings only
+        int liveFrequency;
+
+        void add(int doc, int frequency) {
+            writeVarInt(doc - lastDoc);
+            writeVarInt(frequency);
+            lastDoc = doc;
+            docFrequency++;
+            liveFrequency++;
+        }
+
+        // Rewrites this list without the docs mapped to -1
+        void remap(int[] remap) {
+            PostingList compacted = new PostingList();
+            Cursor cursor = cursor();
+            while (cursor.next()) {
+                int doc = remap[cursor.doc];
+                if (doc >= 0) {
+                    compacted.add(doc, cursor.frequency);
+                }
+            }
+            bytes = compacted.bytes;
+            size = compacted.size;
+            lastDoc = compacted.lastDoc;
+            docFrequency = compacted.docFrequency;
+            liveFrequency = compacted.liveFrequency;
+        }
+
+        Cursor cursor() {
+            return new Cursor();
+        }
+
+        private void writeVarInt(int value) {
+            if (size + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + 5));
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        final class Cursor {
+
+            private int position;
+            int doc = -1;
+            int frequency;
+
+            boolean next() {
+                if (position >= size) {
+                    return false;
+                }
+                doc += readVarInt();
+                frequency = readVarInt();
+                return true;
+            }
+
+            private int readVarInt() {
+                int value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                return value;
+            }
+        }
+    }
+}
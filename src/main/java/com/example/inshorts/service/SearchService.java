@@ -0,0 +1,218 @@
+package com.example.inshorts.service;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.ArticleCard;
+import com.example.inshorts.repository.ArticleRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Full-text search over articles, backed by an in-process SearchIndex. The index is restored from a
+// snapshot file at startup and caught up from article updated_at stamps, so a restart doesn't
+// re-tokenize every article; without a snapshot it is rebuilt in chunks.
+@Service
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    public static final int DEFAULT_SUGGESTIONS = 8;
+    public static final int MAX_SUGGESTIONS = 20;
+
+    // Covers clock skew and saves that were in flight while the snapshot was written
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(1);
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Value("${inshorts.search.snapshot-path:search/articles.idx}")
+    private String snapshotPath;
+
+    @Value("${inshorts.search.rebuild-chunk-size:500}")
+    private int rebuildChunkSize;
+
+    @Value("${inshorts.search.recency-weight:0.5}")
+    private double recencyWeight;
+
+    @Value("${inshorts.search.recency-half-life-hours:72}")
+    private long recencyHalfLifeHours;
+
+    @Value("${inshorts.search.compact-garbage-ratio:0.25}")
+    private double compactGarbageRatio;
+
+    private volatile SearchIndex index = new SearchIndex();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        Path snapshot = Paths.get(snapshotPath);
+        if (Files.exists(snapshot)) {
+            try {
+                restore(snapshot);
+                return;
+            } catch (IOException e) {
+                logger.warn("Could not read search index snapshot {}, rebuilding", snapshot, e);
+            }
+        }
+        rebuild();
+    }
+
+    public void index(Article article) {
+        index.index(article.getId(), article.getTitle(), article.getSummary(), article.getContent(),
+                epochSecond(article.getPublishedAt()));
+        dirty.set(true);
+    }
+
+    public void remove(Long articleId) {
+        index.remove(articleId);
+        dirty.set(true);
+    }
+
+    // Ranked matches as feed cards, best first
+    @Transactional(readOnly = true)
+    public List<ArticleCard> search(String query, int limit) {
+        long now = Instant.now().getEpochSecond();
+        List<SearchIndex.Hit> hits = index.search(query, limit, now, recencyWeight,
+                Duration.ofHours(recencyHalfLifeHours).toSeconds());
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (SearchIndex.Hit hit : hits) {
+            ids.add(hit.articleId());
+        }
+        Map<Long, ArticleCard> byId = new HashMap<>();
+        for (ArticleCard card : articleRepository.findCardsByIdIn(ids)) {
+            byId.put(card.id(), card);
+        }
+
+        List<ArticleCard> cards = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ArticleCard card = byId.get(id);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+
+    // Served straight from the index, without touching the database
+    public List<SearchIndex.Suggestion> suggest(String prefix, Integer limit) {
+        int count = limit == null ? DEFAULT_SUGGESTIONS : Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return index.suggest(prefix, count);
+    }
+
+    // Write the snapshot every few minutes when something changed
+    @Scheduled(fixedDelayString = "${inshorts.search.snapshot-interval-ms:300000}")
+    public void snapshotIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            if (index.garbageRatio() > compactGarbageRatio) {
+                index.compact();
+            }
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            dirty.set(true);
+            logger.error("Error writing search index snapshot, will retry", e);
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        logger.info("Writing search index snapshot before shutdown");
+        snapshotIfDirty();
+    }
+
+    private void restore(Path snapshot) throws IOException {
+        long takenAt;
+        SearchIndex restored;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            takenAt = in.readLong();
+            restored = SearchIndex.readSnapshot(in);
+        }
+        index = restored;
+
+        // Re-index what changed since the snapshot and drop what was deleted
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(takenAt), ZoneId.systemDefault())
+                .minus(CATCH_UP_MARGIN);
+        List<Article> changed = articleRepository.findUpdatedSince(since);
+        for (Article article : changed) {
+            index(article);
+        }
+        Set<Long> existing = new HashSet<>(articleRepository.findAllIds());
+        int removed = 0;
+        for (Long id : restored.indexedArticleIds()) {
+            if (!existing.contains(id)) {
+                remove(id);
+                removed++;
+            }
+        }
+        logger.info("Restored search index with {} articles ({} re-indexed, {} removed since the snapshot)",
+                restored.size(), changed.size(), removed);
+    }
+
+    private void rebuild() {
+        SearchIndex rebuilt = new SearchIndex();
+        index = rebuilt;
+        Long afterId = 0L;
+        while (true) {
+            List<Article> chunk = articleRepository.findChunkAfter(afterId, PageRequest.ofSize(rebuildChunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (Article article : chunk) {
+                index(article);
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        logger.info("Rebuilt search index with {} articles", rebuilt.size());
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path target = Paths.get(snapshotPath).toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long takenAt = System.currentTimeMillis();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeLong(takenAt);
+            index.writeSnapshot(out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.debug("Wrote search index snapshot {}", target);
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toEpochSecond() : Long.MIN_VALUE;
+    }
+}
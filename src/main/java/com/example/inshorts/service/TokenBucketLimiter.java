@@ -0,0 +1,51 @@
+package com.example.inshorts.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets keyed by caller, in their GCRA form: instead of a token count and a refill time,
+// each bucket is one AtomicLong holding the time at which it will be full again. Taking a token is
+// a single compare-and-set, so there is no lock to contend on, and the ConcurrentHashMap spreads
+// callers over its bins. A bucket that has refilled completely is the same as a missing one, which
+// lets idle buckets be dropped at any time.
+public class TokenBucketLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    // Refills permitsPerMinute tokens per minute and holds at most burst tokens
+    public TokenBucketLimiter(String name, int permitsPerMinute, int burst) {
+        if (permitsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive rate and burst");
+        }
+        this.intervalNanos = 60_000_000_000L / permitsPerMinute;
+        this.burstNanos = intervalNanos * (burst - 1);
+    }
+
+    // 0 when a token was taken, otherwise how many nanoseconds until the next one is available
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        while (true) {
+            long fullAt = bucket.get();
+            long start = Math.max(fullAt, nowNanos);
+            long wait = start - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // A caller that raced with the removal spends its token on a detached bucket, which a
+    // full bucket would have granted anyway
+    public void evictIdle(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.get() <= nowNanos);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
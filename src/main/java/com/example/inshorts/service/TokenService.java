@@ -0,0 +1,186 @@
+package com.example.inshorts.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+// Signed access and refresh tokens for the stateless mode (inshorts.security.tokens.enabled).
+// Tokens are HS256 JWTs carrying the user id and roles, so a node verifies a request with one HMAC
+// and no session or user lookup; any node with the same secret accepts tokens issued by another.
+// Refreshing does look the user up, so role changes and deleted accounts take effect within one
+// access-token lifetime.
+@Service
+@ConditionalOnProperty(name = "inshorts.security.tokens.enabled", havingValue = "true")
+public class TokenService {
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public record TokenPair(String accessToken, String refreshToken, long expiresIn) {}
+
+    // The JWT payload; roles are stored without the ROLE_ prefix
+    record Claims(String sub, Long uid, List<String> roles, String typ, long iat, long exp) {}
+
+    // A key with its encoded JWT header precomputed; the Mac is cloned per use, never re-initialized
+    private record SigningKey(String header, Mac prototype) {}
+
+    private final ObjectMapper objectMapper;
+    private final UserService userService;
+    private final long accessTtlSeconds;
+    private final long refreshTtlSeconds;
+
+    private final SigningKey signingKey;
+    // Encoded header -> key; the previous secret only verifies, so tokens survive a rotation
+    private final Map<String, SigningKey> verificationKeys = new HashMap<>();
+
+    public TokenService(ObjectMapper objectMapper, UserService userService,
+                        @Value("${inshorts.security.tokens.secret:}") String secret,
+                        @Value("${inshorts.security.tokens.previous-secret:}") String previousSecret,
+                        @Value("${inshorts.security.tokens.access-ttl-seconds:900}") long accessTtlSeconds,
+                        @Value("${inshorts.security.tokens.refresh-ttl-seconds:1209600}") long refreshTtlSeconds) {
+        this.objectMapper = objectMapper;
+        this.userService = userService;
+        this.accessTtlSeconds = accessTtlSeconds;
+        this.refreshTtlSeconds = refreshTtlSeconds;
+        signingKey = signingKey(secret);
+        verificationKeys.put(signingKey.header(), signingKey);
+        if (!previousSecret.isEmpty()) {
+            SigningKey previous = signingKey(previousSecret);
+            verificationKeys.put(previous.header(), previous);
+        }
+    }
+
+    public TokenPair issue(UserPrincipal principal) {
+        long now = System.currentTimeMillis() / 1000;
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority authority : principal.getAuthorities()) {
+            String name = authority.getAuthority();
+            roles.add(name.startsWith("ROLE_") ? name.substring("ROLE_".length()) : name);
+        }
+        String access = sign(new Claims(principal.getUsername(), principal.getId(), roles, ACCESS, now, now + accessTtlSeconds));
+        String refresh = sign(new Claims(principal.getUsername(), principal.getId(), roles, REFRESH, now, now + refreshTtlSeconds));
+        return new TokenPair(access, refresh, accessTtlSeconds);
+    }
+
+    // The caller of a valid access token, or null when it is malformed, forged, expired or a refresh token
+    public UserPrincipal authenticate(String token) {
+        Claims claims = verify(token, ACCESS);
+        if (claims == null) {
+            return null;
+        }
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>(claims.roles().size());
+        for (String role : claims.roles()) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        return new UserPrincipal(claims.uid(), claims.sub(), "", authorities);
+    }
+
+    // A new pair for a valid refresh token with the user's current roles, or null
+    public TokenPair refresh(String refreshToken) {
+        Claims claims = verify(refreshToken, REFRESH);
+        if (claims == null) {
+            return null;
+        }
+        UserDetails user;
+        try {
+            user = userService.loadUserByUsername(claims.sub());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        // A deleted account whose name was taken again is someone else
+        if (!(user instanceof UserPrincipal principal) || !principal.getId().equals(claims.uid())) {
+            return null;
+        }
+        return issue(principal);
+    }
+
+    private String sign(Claims claims) {
+        try {
+            String payload = signingKey.header() + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            return payload + "." + ENCODER.encodeToString(hmac(signingKey, payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize token claims", e);
+        }
+    }
+
+    private Claims verify(String token, String type) {
+        if (token == null) {
+            return null;
+        }
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = token.lastIndexOf('.');
+        if (headerEnd < 0 || payloadEnd <= headerEnd) {
+            return null;
+        }
+        SigningKey key = verificationKeys.get(token.substring(0, headerEnd));
+        if (key == null) {
+            return null;
+        }
+        byte[] signature;
+        Claims claims;
+        try {
+            signature = DECODER.decode(token.substring(payloadEnd + 1));
+            if (!MessageDigest.isEqual(signature, hmac(key, token.substring(0, payloadEnd)))) {
+                return null;
+            }
+            claims = objectMapper.readValue(DECODER.decode(token.substring(headerEnd + 1, payloadEnd)), Claims.class);
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+        if (!type.equals(claims.typ()) || claims.uid() == null || claims.sub() == null || claims.roles() == null
+                || claims.exp() <= System.currentTimeMillis() / 1000) {
+            return null;
+        }
+        return claims;
+    }
+
+    private static byte[] hmac(SigningKey key, String data) {
+        Mac mac;
+        try {
+            mac = (Mac) key.prototype().clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 provider does not support clone()", e);
+        }
+        return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static SigningKey signingKey(String secret) {
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("inshorts.security.tokens secrets must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(bytes, "HmacSHA256"));
+            // Key id derived from the secret, so every node names the same key the same way
+            String kid = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 4);
+            String header = "{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\"" + kid + "\"}";
+            return new SigningKey(ENCODER.encodeToString(header.getBytes(StandardCharsets.US_ASCII)), mac);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
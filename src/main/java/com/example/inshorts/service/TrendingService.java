@@ -0,0 +1,132 @@
+package com.example.inshorts.service;
+
+import com.example.inshorts.repository.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    // The formula: (views * 1) + (likes * 2) + (comments * 3), scaled by freshness
+    public static final double VIEW_WEIGHT = 1;
+    public static final double LIKE_WEIGHT = 2;
+    public static final double COMMENT_WEIGHT = 3;
+
+    public record Score(long articleId, double score, LocalDateTime publishedAt) {}
+
+    private static final Comparator<Score> BY_SCORE_DESC =
+            Comparator.comparingDouble(Score::score).reversed().thenComparingLong(Score::articleId);
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    // Current score per article, plus the same entries kept ordered by score so the
+    // top of the ranking can be read without sorting
+    private final ConcurrentHashMap<Long, Score> scores = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Score> ranking = new ConcurrentSkipListSet<>(BY_SCORE_DESC);
+
+    // Freshness factor (newer articles get a boost): decreases by 10% per day, min 50%
+    public static double freshnessFactor(LocalDateTime publishedAt, LocalDateTime now) {
+        if (publishedAt == null) {
+            return 1.0;
+        }
+        long daysOld = Duration.between(publishedAt, now).toDays();
+        return Math.max(0.5, 1.0 - (daysOld * 0.1));
+    }
+
+    // Seed the index from the persisted scores written by the last trending job
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        List<Score> persisted = new ArrayList<>();
+        for (Object[] row : articleRepository.findTrendingScores()) {
+            persisted.add(new Score((Long) row[0], ((Number) row[1]).doubleValue(), (LocalDateTime) row[2]));
+        }
+        replaceAll(persisted);
+        logger.info("Loaded trending index with {} articles", persisted.size());
+    }
+
+    public List<Long> getTopArticleIds(int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Score> it = ranking.iterator();
+        while (it.hasNext() && ids.size() < limit) {
+            ids.add(it.next().articleId());
+        }
+        return ids;
+    }
+
+    public double getScore(Long articleId) {
+        Score score = scores.get(articleId);
+        return score != null ? score.score() : 0.0;
+    }
+
+    public void recordView(Long articleId) {
+        adjust(articleId, VIEW_WEIGHT);
+    }
+
+    public void recordLike(Long articleId, boolean liked) {
+        adjust(articleId, liked ? LIKE_WEIGHT : -LIKE_WEIGHT);
+    }
+
+    public void recordComment(Long articleId, boolean added) {
+        adjust(articleId, added ? COMMENT_WEIGHT : -COMMENT_WEIGHT);
+    }
+
+    // Track a new or edited article; an existing score is kept
+    public void register(Long articleId, LocalDateTime publishedAt) {
+        scores.compute(articleId, (id, current) -> {
+            Score updated = new Score(id, current != null ? current.score() : 0.0, publishedAt);
+            if (current != null) {
+                ranking.remove(current);
+            }
+            ranking.add(updated);
+            return updated;
+        });
+    }
+
+    public void remove(Long articleId) {
+        scores.computeIfPresent(articleId, (id, current) -> {
+            ranking.remove(current);
+            return null;
+        });
+    }
+
+    // Overwrite scores with freshly calculated ones (used by the hourly job). Articles
+    // missing from the batch are left alone; deletes go through remove().
+    public void replaceAll(Collection<Score> fresh) {
+        for (Score score : fresh) {
+            scores.compute(score.articleId(), (id, current) -> {
+                if (current != null) {
+                    ranking.remove(current);
+                }
+                ranking.add(score);
+                return score;
+            });
+        }
+    }
+
+    private void adjust(Long articleId, double weight) {
+        scores.computeIfPresent(articleId, (id, current) -> {
+            double delta = weight * freshnessFactor(current.publishedAt(), LocalDateTime.now());
+            Score updated = new Score(id, current.score() + delta, current.publishedAt());
+            ranking.remove(current);
+            ranking.add(updated);
+            return updated;
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.inshorts.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// Authenticated user carrying the database id, so controllers don't look the user up per request
+public class UserPrincipal extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    public UserPrincipal(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // Id of the logged-in user, or null for anonymous requests
+    public static Long currentUserId(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
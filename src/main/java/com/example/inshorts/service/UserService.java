@@ -2,20 +2,28 @@ package com.example.inshorts.service;
 
 import com.example.inshorts.model.User;
 import com.example.inshorts.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
@@ -23,22 +31,69 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Value("${inshorts.security.user-cache-size:10000}")
+    private int userCacheSize;
+
+    // Eviction is local to this instance, so a password or role change made on another one (or
+    // straight in the database) shows up here once the entry expires
+    @Value("${inshorts.security.user-cache-ttl-seconds:60}")
+    private long userCacheTtlSeconds;
+
+    // Immutable snapshot of what authentication needs; a fresh UserPrincipal is built per call
+    // because Spring Security erases credentials on the instance it is handed
+    private record CachedUser(Long id, String username, String password, List<String> roles, long expiresAt) {}
+
+    // Bounded LRU cache of user details, keyed by username, with expire-after-write
+    private Map<String, CachedUser> userCache;
+
+    @PostConstruct
+    void initUserCache() {
+        userCache = Collections.synchronizedMap(new LinkedHashMap<String, CachedUser>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > userCacheSize;
+            }
+        });
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        long now = System.currentTimeMillis();
+        CachedUser cached = userCache.get(username);
+        if (cached == null || cached.expiresAt() <= now) {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+            cached = new CachedUser(user.getId(), user.getUsername(), user.getPassword(), List.copyOf(user.getRoles()),
+                    now + userCacheTtlSeconds * 1000);
+            userCache.put(username, cached);
+        }
 
-        List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+        List<SimpleGrantedAuthority> authorities = cached.roles().stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                 .collect(Collectors.toList());
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
+        return new UserPrincipal(
+                cached.id(),
+                cached.username(),
+                cached.password(),
                 authorities
         );
     }
 
+    // Called by Spring Security after a successful login whose stored hash is older than the configured
+    // encoding (no {bcrypt} prefix, or a lower cost); newPassword is the re-hashed password
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        userRepository.findById(principal.getId()).ifPresent(stored -> {
+            stored.setPassword(newPassword);
+            userRepository.save(stored);
+        });
+        evictCachedUser(principal.getId());
+        return new UserPrincipal(principal.getId(), principal.getUsername(), newPassword, principal.getAuthorities());
+    }
+
     public User registerUser(User user) {
         // Check if username or email already exists
         if (userRepository.existsByUsername(user.getUsername())) {
@@ -48,7 +103,7 @@ public class UserService implements UserDetailsService {
             throw new RuntimeException("Email already exists");
         }
 
-        // Encode password
+        // Encode password (on the bounded hashing pool; throws HashingBusyException when it is saturated)
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
         // Add default role
@@ -62,19 +117,39 @@ public class UserService implements UserDetailsService {
         return userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> getUserByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    public User updateRoles(Long id, Set<String> roles) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.getRoles().clear();
+        user.getRoles().addAll(roles);
+        User saved = userRepository.save(user);
+        evictCachedUser(id);
+        return saved;
+    }
+
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        evictCachedUser(id);
+    }
+
+    private void evictCachedUser(Long id) {
+        synchronized (userCache) {
+            userCache.values().removeIf(cached -> cached.id().equals(id));
+        }
     }
 }
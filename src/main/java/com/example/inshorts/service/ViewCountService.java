@@ -0,0 +1,99 @@
+package com.example.inshorts.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class ViewCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountService.class);
+
+    private static final String INCREMENT_SQL = "UPDATE article SET view_count = view_count + ? WHERE id = ?";
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Pending view increments per article. LongAdder stripes hot articles across cells,
+    // so concurrent readers of the same article don't contend on a single counter.
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void recordView(Long articleId) {
+        pending.computeIfAbsent(articleId, id -> new LongAdder()).increment();
+    }
+
+    // Views recorded in memory but not yet written to the database
+    public long getPendingViews(Long articleId) {
+        LongAdder adder = pending.get(articleId);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    public void discard(Long articleId) {
+        pending.remove(articleId);
+    }
+
+    // Write accumulated views every few seconds
+    @Scheduled(fixedDelayString = "${inshorts.views.flush-interval-ms:5000}")
+    public void flush() {
+        // Sorted by id so concurrent flushes on other nodes lock rows in the same order
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                deltas.put(entry.getKey(), delta);
+            } else if (pending.remove(entry.getKey(), entry.getValue())) {
+                // Idle counter dropped; re-credit anything that raced in before the removal
+                long late = entry.getValue().sumThenReset();
+                if (late > 0) {
+                    deltas.put(entry.getKey(), late);
+                }
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((articleId, delta) -> batch.add(new Object[]{delta, articleId}));
+
+        // Each sub-batch commits or rolls back as a whole, so after a failure exactly the rows from
+        // `from` on are unwritten; in auto-commit a partly applied sub-batch would be counted twice
+        int from = 0;
+        try {
+            for (; from < batch.size(); from += BATCH_SIZE) {
+                List<Object[]> rows = batch.subList(from, Math.min(from + BATCH_SIZE, batch.size()));
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INCREMENT_SQL, rows));
+            }
+            logger.debug("Flushed view counts for {} articles", deltas.size());
+        } catch (RuntimeException e) {
+            // Put the unwritten views back so the next flush retries them
+            for (Object[] row : batch.subList(from, batch.size())) {
+                pending.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]);
+            }
+            logger.error("Error flushing view counts, will retry", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing pending view counts before shutdown");
+        flush();
+    }
+}
@@ -0,0 +1,15 @@
+-- Columns added to article after the first release: denormalized like and comment counts, the
+-- change versions behind ETags, the last-change time the search index catches up from, and the
+-- persisted trending score. NOT NULL with defaults, so existing rows load into the primitive fields.
+ALTER TABLE article ADD COLUMN like_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE article ADD COLUMN comment_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE article ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE article ADD COLUMN comment_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE article ADD COLUMN updated_at DATETIME(6);
+ALTER TABLE article ADD COLUMN trending_score FLOAT(53) NOT NULL DEFAULT 0;
+
+-- Existing likes and comments are counted here, so the counts are right from the first request
+-- rather than after the hourly reconciliation
+UPDATE article a SET like_count = (SELECT COUNT(*) FROM article_likes l WHERE l.article_id = a.id);
+UPDATE article a SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.article_id = a.id);
+UPDATE article SET updated_at = COALESCE(published_at, CURRENT_TIMESTAMP(6));
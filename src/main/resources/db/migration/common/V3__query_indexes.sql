@@ -0,0 +1,17 @@
+-- One index per access path the repositories use; QueryPlanTest checks each query against them.
+
+-- Newest-first feed, its keyset pages and date filters
+CREATE INDEX idx_article_published_at ON article (published_at DESC, id DESC);
+
+-- Top-N reports by the denormalized counters
+CREATE INDEX idx_article_view_count ON article (view_count DESC, id);
+CREATE INDEX idx_article_like_count ON article (like_count DESC, id);
+
+-- Search index catch-up after a restart
+CREATE INDEX idx_article_updated_at ON article (updated_at);
+
+-- Comment pages of one article, newest first, and per-article comment counts
+CREATE INDEX idx_comments_article_created ON comments (article_id, created_at DESC, id DESC);
+
+-- article_likes needs nothing new: its primary key (article_id, user_id) serves lookups by article,
+-- and the index behind the user_id foreign key serves lookups by user
@@ -0,0 +1,48 @@
+-- The embedded database's copy of mysql/V1__baseline_schema.sql, with the column types Hibernate
+-- expects on H2.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role VARCHAR(255),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE article (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title VARCHAR(255),
+    summary VARCHAR(500),
+    content CLOB,
+    author VARCHAR(255),
+    published_at TIMESTAMP(6),
+    view_count INTEGER NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE comments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    content VARCHAR(500) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    user_id BIGINT NOT NULL,
+    article_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_comments_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_comments_article FOREIGN KEY (article_id) REFERENCES article (id)
+);
+
+CREATE TABLE article_likes (
+    article_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (article_id, user_id),
+    CONSTRAINT fk_article_likes_article FOREIGN KEY (article_id) REFERENCES article (id),
+    CONSTRAINT fk_article_likes_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,4 @@
+-- Article ids come from a pooled sequence with an allocation size of 50. Hibernate hands out the
+-- 50 ids up to the value it reads, so the sequence starts 50 past the highest id in use.
+CREATE SEQUENCE article_seq START WITH 50 INCREMENT BY 50;
+ALTER SEQUENCE article_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM article);
@@ -0,0 +1,49 @@
+-- The schema of the first release, as its ddl-auto=update created it. Databases that already have
+-- these tables are baselined at this version and only run the later scripts, so this file must not
+-- gain columns the first release didn't have; those go in later versions.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) ENGINE=InnoDB;
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role VARCHAR(255),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE article (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255),
+    summary VARCHAR(500),
+    content LONGTEXT,
+    author VARCHAR(255),
+    published_at DATETIME(6),
+    view_count INTEGER NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE comments (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    content VARCHAR(500) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    user_id BIGINT NOT NULL,
+    article_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_comments_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_comments_article FOREIGN KEY (article_id) REFERENCES article (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE article_likes (
+    article_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (article_id, user_id),
+    CONSTRAINT fk_article_likes_article FOREIGN KEY (article_id) REFERENCES article (id),
+    CONSTRAINT fk_article_likes_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
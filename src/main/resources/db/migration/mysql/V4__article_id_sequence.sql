@@ -0,0 +1,10 @@
+-- Article ids come from a pooled sequence with an allocation size of 50, which Hibernate emulates
+-- on MySQL with a one-row table. It hands out the 50 ids up to the value it reads, so the table
+-- starts 50 past the highest id in use. A table that ddl-auto already created keeps its value
+-- when that is higher.
+CREATE TABLE IF NOT EXISTS article_seq (next_val BIGINT) ENGINE=InnoDB;
+
+SET @next_val = GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM article),
+                         (SELECT COALESCE(MAX(next_val), 0) FROM article_seq));
+DELETE FROM article_seq;
+INSERT INTO article_seq (next_val) VALUES (@next_val);
@@ -0,0 +1,121 @@
+package com.example.inshorts.benchmark;
+
+import com.example.inshorts.AWebsiteLikeInshortsWithAdminDashboardApplication;
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.Comment;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.ArticleLikeRepository;
+import com.example.inshorts.repository.ArticleRepository;
+import com.example.inshorts.repository.CommentRepository;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.AnalyticsService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Boots the application against the in-memory database and seeds a fixed dataset
+public final class BenchmarkContext {
+
+    public static final int USERS = 200;
+    public static final int ARTICLES = 2000;
+    public static final int COMMENTS_PER_ARTICLE = 5;
+    public static final int LIKES_PER_USER = 50;
+    public static final String PASSWORD = "password";
+
+    public final ConfigurableApplicationContext context;
+    public final List<Long> userIds = new ArrayList<>();
+    public final List<Long> articleIds = new ArrayList<>();
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static BenchmarkContext start(String... extraProperties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AWebsiteLikeInshortsWithAdminDashboardApplication.class)
+                .profiles("benchmark")
+                .properties(extraProperties)
+                .run();
+        BenchmarkContext benchmarkContext = new BenchmarkContext(context);
+        benchmarkContext.seed();
+        return benchmarkContext;
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public void close() {
+        context.close();
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        UserRepository userRepository = bean(UserRepository.class);
+        ArticleRepository articleRepository = bean(ArticleRepository.class);
+        CommentRepository commentRepository = bean(CommentRepository.class);
+        ArticleLikeRepository articleLikeRepository = bean(ArticleLikeRepository.class);
+
+        // Hashed once so seeding doesn't pay for BCrypt per user
+        String passwordHash = bean(PasswordEncoder.class).encode(PASSWORD);
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword(passwordHash);
+            user.getRoles().add("USER");
+            users.add(user);
+        }
+        for (User user : userRepository.saveAll(users)) {
+            userIds.add(user.getId());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Article> articles = new ArrayList<>(ARTICLES);
+        for (int i = 0; i < ARTICLES; i++) {
+            Article article = new Article();
+            article.setTitle("Article " + i);
+            article.setSummary("Summary of article " + i + " with enough text to look like a real card.");
+            article.setContent("Paragraph of article " + i + ".\n".repeat(40));
+            article.setAuthor("Author " + (i % 25));
+            article.setPublishedAt(now.minusMinutes(i * 7L));
+            articles.add(article);
+        }
+        List<Article> savedArticles = articleRepository.saveAll(articles);
+        for (Article article : savedArticles) {
+            articleIds.add(article.getId());
+        }
+
+        List<Comment> comments = new ArrayList<>(ARTICLES * COMMENTS_PER_ARTICLE);
+        for (Article article : savedArticles) {
+            for (int i = 0; i < COMMENTS_PER_ARTICLE; i++) {
+                Comment comment = new Comment();
+                comment.setContent("Comment " + i + " on " + article.getTitle());
+                comment.setCreatedAt(now.minusSeconds(random.nextInt(86_400)));
+                comment.setArticle(article);
+                comment.setUser(users.get(random.nextInt(USERS)));
+                comments.add(comment);
+            }
+        }
+        commentRepository.saveAll(comments);
+        commentRepository.recountCommentCounts(0L, Long.MAX_VALUE);
+
+        for (Long userId : userIds) {
+            for (int i = 0; i < LIKES_PER_USER; i++) {
+                Long articleId = articleIds.get(random.nextInt(articleIds.size()));
+                if (!articleLikeRepository.exists(articleId, userId)) {
+                    articleLikeRepository.insert(articleId, userId);
+                    articleLikeRepository.adjustLikeCount(articleId, 1);
+                }
+            }
+        }
+
+        // Populate persisted trending scores and the in-memory index
+        bean(AnalyticsService.class).calculateTrendingArticles();
+    }
+}
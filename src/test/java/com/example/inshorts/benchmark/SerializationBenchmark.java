@@ -0,0 +1,107 @@
+package com.example.inshorts.benchmark;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.ArticleCard;
+import com.example.inshorts.model.Comment;
+import com.example.inshorts.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of the entity graphs the REST API returns, including @JsonIdentityInfo handling
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Article article;
+    private List<Comment> comments;
+    private List<ArticleCard> cards;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        // Same settings Spring Boot applies to the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            User u = new User();
+            u.setId(i);
+            u.setUsername("user" + i);
+            u.setEmail("user" + i + "@example.com");
+            u.setPassword("secret");
+            u.getRoles().add("USER");
+            users.add(u);
+        }
+        user = users.get(0);
+
+        article = new Article();
+        article.setId(1L);
+        article.setTitle("Benchmark article");
+        article.setSummary("A summary long enough to resemble a real card on the feed.");
+        article.setContent("Paragraph.\n".repeat(200));
+        article.setAuthor("Author");
+        article.setPublishedAt(now);
+
+        comments = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            Comment comment = new Comment();
+            comment.setId(i);
+            comment.setContent("Comment " + i);
+            comment.setCreatedAt(now.minusMinutes(i));
+            comment.setArticle(article);
+            comment.setUser(users.get((int) (i % users.size())));
+            comments.add(comment);
+        }
+        article.setCommentCount(comments.size());
+
+        cards = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            cards.add(new ArticleCard(i, "Article " + i, "Summary " + i, "Author", now.minusHours(i), 100, 10, 5));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeArticleDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(article);
+    }
+
+    @Benchmark
+    public byte[] serializeCommentPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(comments);
+    }
+
+    @Benchmark
+    public byte[] serializeFeedPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cards);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+}
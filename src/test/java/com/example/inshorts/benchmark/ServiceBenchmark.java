@@ -0,0 +1,77 @@
+package com.example.inshorts.benchmark;
+
+import com.example.inshorts.model.ArticleCard;
+import com.example.inshorts.model.Comment;
+import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.CommentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private BenchmarkContext benchmarkContext;
+    private ArticleService articleService;
+    private CommentService commentService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        benchmarkContext = BenchmarkContext.start();
+        articleService = benchmarkContext.bean(ArticleService.class);
+        commentService = benchmarkContext.bean(CommentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        benchmarkContext.close();
+    }
+
+    @Benchmark
+    public List<ArticleCard> getTrendingArticles() {
+        return articleService.getTrendingArticles();
+    }
+
+    @Benchmark
+    public boolean toggleLike() {
+        return articleService.toggleLike(randomArticleId(), randomUserId());
+    }
+
+    @Benchmark
+    public boolean isLikedByUser() {
+        return articleService.isLikedByUser(randomArticleId(), randomUserId());
+    }
+
+    @Benchmark
+    public Comment addComment() {
+        return commentService.addComment(randomArticleId(), randomUserId(), "Benchmark comment");
+    }
+
+    private Long randomArticleId() {
+        List<Long> ids = benchmarkContext.articleIds;
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private Long randomUserId() {
+        List<Long> ids = benchmarkContext.userIds;
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.inshorts.benchmark;
+
+import com.example.inshorts.AWebsiteLikeInshortsWithAdminDashboardApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// Cold start, one measurement per fresh JVM: the time until the application is ready, and the
+// latency of the first feed request after that. "default" is the eager startup, "prod" the
+// lazy-init production profile. The archive from the cds profile only applies to the packaged jar,
+// not to this classpath, so compare it with the startup time the packaged app logs.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private ConfigurableApplicationContext started;
+
+    // An application that is already up, for measuring its first request
+    @State(Scope.Benchmark)
+    public static class Running {
+
+        private ConfigurableApplicationContext context;
+        private HttpClient client;
+        private URI newestFeed;
+
+        @Setup(Level.Iteration)
+        public void start(StartupBenchmark benchmark) {
+            context = benchmark.boot();
+            client = HttpClient.newHttpClient();
+            newestFeed = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/articles/newest");
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        if (started != null) {
+            started.close();
+            started = null;
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext startup() {
+        started = boot();
+        return started;
+    }
+
+    @Benchmark
+    public int firstRequest(Running running) throws Exception {
+        HttpResponse<byte[]> response = running.client.send(HttpRequest.newBuilder(running.newestFeed).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("First request failed with " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private ConfigurableApplicationContext boot() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(AWebsiteLikeInshortsWithAdminDashboardApplication.class);
+        if ("prod".equals(profile)) {
+            builder.profiles("prod", "benchmark");
+        } else {
+            builder.profiles("benchmark");
+        }
+        return builder.run();
+    }
+}
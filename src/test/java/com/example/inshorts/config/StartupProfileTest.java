@@ -0,0 +1,49 @@
+package com.example.inshorts.config;
+
+import com.example.inshorts.controller.AdminController;
+import com.example.inshorts.controller.ArticleImportController;
+import com.example.inshorts.service.AnalyticsService;
+import com.example.inshorts.service.FeedSnapshotService;
+import com.example.inshorts.service.SearchService;
+import com.example.inshorts.service.ViewCountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The prod profile creates beans lazily; a scheduled job whose bean is never created silently never runs
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:startup-profile;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles({"prod", "benchmark"})
+class StartupProfileTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    void scheduledJobsAndTheRequestPathStartEagerly() {
+        for (Class<?> type : new Class<?>[] {ViewCountService.class, AnalyticsService.class, SearchService.class,
+                FeedSnapshotService.class}) {
+            assertTrue(created(type), type.getSimpleName() + " should be created at startup");
+        }
+        assertTrue(beanFactory.containsSingleton("springSecurityFilterChain"));
+    }
+
+    @Test
+    void adminEndpointsWaitForFirstUse() {
+        assertFalse(created(AdminController.class));
+        assertFalse(created(ArticleImportController.class));
+    }
+
+    private boolean created(Class<?> type) {
+        for (String name : beanFactory.getBeanNamesForType(type, false, false)) {
+            if (beanFactory.containsSingleton(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
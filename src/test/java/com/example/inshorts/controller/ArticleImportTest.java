@@ -0,0 +1,140 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.ArticleCard;
+import com.example.inshorts.repository.ArticleRepository;
+import com.example.inshorts.service.SearchService;
+import com.example.inshorts.service.UserPrincipal;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Valid rows are inserted across several batches; invalid ones are reported by line and skipped
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:import;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "inshorts.import.batch-size=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+class ArticleImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Test
+    void importsNdjsonAndReportsInvalidRows() throws Exception {
+        String body = """
+                {"title":"Import one","summary":"S","content":"C","author":"A","publishedAt":"2025-01-02T10:00:00"}
+                {"title":"Import two","content":"C"}
+                {"title":"","content":"C"}
+
+                not json
+                {"title":"Import three","content":"C","publishedAt":"yesterday"}
+                {"title":"Import four","content":"C","publishedAt":"2025-01-02T10:00:00Z"}
+                """;
+        long before = articleRepository.count();
+
+        JsonNode result = importArticles(ArticleImportController.NDJSON, body, admin());
+
+        assertEquals(3, result.get("imported").asInt());
+        assertEquals(3, result.get("failed").asInt());
+        assertEquals(List.of(3, 5, 6), lines(result));
+        assertEquals(before + 3, articleRepository.count());
+        List<ArticleCard> found = searchService.search("import two", 10);
+        assertEquals("Import two", found.get(0).title());
+    }
+
+    @Test
+    void importsCsvWithQuotedFields() throws Exception {
+        String body = "title,summary,content,published_at\r\n"
+                + "Csv one,\"Summary, with comma\",\"Line one\nLine two\",2025-01-02T10:00:00\r\n"
+                + "Csv two,Short,\"She said \"\"hi\"\"\",\r\n"
+                + "Csv three,Missing a field\r\n";
+
+        JsonNode result = importArticles(ArticleImportController.CSV, body, admin());
+
+        assertEquals(2, result.get("imported").asInt());
+        assertEquals(List.of(5), lines(result));
+        List<ArticleCard> found = searchService.search("csv one", 10);
+        assertEquals("Summary, with comma", found.get(0).summary());
+        assertEquals("She said \"hi\"", articleRepository.findById(searchService.search("csv two", 10).get(0).id())
+                .orElseThrow().getContent());
+    }
+
+    @Test
+    void onlyAdminsCanImport() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/admin/articles/import").session(session("ROLE_USER"))
+                .contentType(ArticleImportController.NDJSON).content("{\"title\":\"T\",\"content\":\"C\"}")).andReturn();
+        assertEquals(403, result.getResponse().getStatus());
+    }
+
+    // The dashboard totals cover every article, not the first page of the feed
+    @Test
+    void summaryCountsEveryArticle() throws Exception {
+        importArticles(ArticleImportController.NDJSON, """
+                {"title":"Summary old","content":"C","publishedAt":"2020-01-01T10:00:00"}
+                {"title":"Summary new","content":"C"}
+                """, admin());
+        List<Article> all = articleRepository.findAll();
+        LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
+
+        MvcResult result = mockMvc.perform(get("/api/admin/articles/summary").session(admin())).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        JsonNode summary = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertEquals(all.size(), summary.get("totalArticles").asInt());
+        assertEquals(all.stream().filter(a -> a.getPublishedAt() != null && !a.getPublishedAt().isBefore(weekAgo)).count(),
+                summary.get("articlesThisWeek").asLong());
+        assertEquals(all.stream().mapToLong(Article::getLikeCount).sum(), summary.get("totalLikes").asLong());
+
+        assertEquals(403, mockMvc.perform(get("/api/admin/articles/summary").session(session("ROLE_USER")))
+                .andReturn().getResponse().getStatus());
+    }
+
+    private JsonNode importArticles(String contentType, String body, MockHttpSession session) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/admin/articles/import").session(session)
+                .contentType(contentType).content(body)).andReturn();
+        assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static List<Integer> lines(JsonNode result) {
+        return result.get("errors").findValues("line").stream().map(JsonNode::asInt).toList();
+    }
+
+    private MockHttpSession admin() {
+        return session("ROLE_ADMIN");
+    }
+
+    private MockHttpSession session(String role) {
+        UserPrincipal principal = new UserPrincipal(1L, "editor", "unused", List.of(new SimpleGrantedAuthority(role)));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+        return session;
+    }
+}
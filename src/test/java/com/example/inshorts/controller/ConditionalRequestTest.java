@@ -0,0 +1,151 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.config.QueryCounter;
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.CommentService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Article detail and comment lists answer conditional GETs from the version stamps in the article
+// row. A like changes the article's tag only; a comment changes both, since the detail carries the count.
+// The feed side of this is covered in FeedSnapshotTest.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conditional-requests;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @BeforeAll
+    void seed() {
+        User user = new User();
+        user.setUsername("conditional");
+        user.setEmail("conditional@example.com");
+        user.setPassword("unused");
+        user.getRoles().add("USER");
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    void articleDetailAnswersIfNoneMatchWithAnEmptyBody() throws Exception {
+        String url = "/api/articles/" + article("Unchanged");
+        String etag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+        assertEquals(304, result.getResponse().getStatus());
+        assertEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(0, result.getResponse().getContentLength());
+    }
+
+    @Test
+    void articleDetailAnswersIfModifiedSince() throws Exception {
+        String url = "/api/articles/" + article("Dated");
+        String lastModified = mockMvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        assertNotNull(lastModified);
+
+        assertEquals(304, mockMvc.perform(get(url).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andReturn().getResponse().getStatus());
+    }
+
+    @Test
+    void likesChangeTheArticleTagButNotTheComments() throws Exception {
+        Long articleId = article("Liked");
+        String articleUrl = "/api/articles/" + articleId;
+        String commentsUrl = "/api/comments/article/" + articleId;
+        String articleTag = etag(articleUrl);
+        String commentsTag = etag(commentsUrl);
+
+        articleService.toggleLike(articleId, userId);
+
+        MvcResult detail = mockMvc.perform(get(articleUrl).header(HttpHeaders.IF_NONE_MATCH, articleTag)).andReturn();
+        assertEquals(200, detail.getResponse().getStatus());
+        assertNotEquals(articleTag, detail.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(304, status(commentsUrl, commentsTag));
+    }
+
+    // Answered from the version lookup alone
+    @Test
+    void unchangedCommentsAnswerWithOneStatement() throws Exception {
+        Long articleId = article("Discussed");
+        commentService.addComment(articleId, userId, "First");
+        String url = "/api/comments/article/" + articleId;
+        String etag = etag(url);
+
+        MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+        assertEquals(304, result.getResponse().getStatus());
+        QueryCounter.Counts counts = (QueryCounter.Counts) result.getRequest().getAttribute(QueryCounter.REQUEST_ATTRIBUTE);
+        assertEquals(1, counts.statements());
+        assertEquals(0, counts.entityLoads());
+    }
+
+    @Test
+    void newCommentsChangeBothTags() throws Exception {
+        Long articleId = article("Commented");
+        String articleUrl = "/api/articles/" + articleId;
+        String commentsUrl = "/api/comments/article/" + articleId;
+        String articleTag = etag(articleUrl);
+        String commentsTag = etag(commentsUrl);
+
+        commentService.addComment(articleId, userId, "New comment");
+
+        assertEquals(200, status(articleUrl, articleTag));
+        MvcResult comments = mockMvc.perform(get(commentsUrl).header(HttpHeaders.IF_NONE_MATCH, commentsTag)).andReturn();
+        assertEquals(200, comments.getResponse().getStatus());
+        assertNotEquals(commentsTag, comments.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void unknownArticlesAreNotFoundWhateverTheTag() throws Exception {
+        assertEquals(404, status("/api/articles/999999", "\"a999999-0-0\""));
+    }
+
+    private String etag(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        return result.getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private int status(String url, String etag) throws Exception {
+        return mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse().getStatus();
+    }
+
+    private Long article(String title) {
+        Article article = new Article();
+        article.setTitle(title);
+        article.setContent("Content");
+        article.setPublishedAt(LocalDateTime.now());
+        return articleService.saveArticle(article).getId();
+    }
+}
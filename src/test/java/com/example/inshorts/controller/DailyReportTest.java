@@ -0,0 +1,191 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.CommentService;
+import com.example.inshorts.service.ReportService;
+import com.example.inshorts.service.UserPrincipal;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// The daily report's CSV and JSON output, its index, the admin download, and that each file is
+// swapped into place whole: a failed write leaves the previous version readable.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:daily-report;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "inshorts.reports.top-n=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DailyReportTest {
+
+    private static Path reportDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long viewed;
+    private Long liked;
+    private Long commented;
+
+    @DynamicPropertySource
+    static void reportDirectory(DynamicPropertyRegistry registry) throws IOException {
+        reportDir = Files.createTempDirectory("inshorts-reports");
+        registry.add("inshorts.reports.dir", reportDir::toString);
+    }
+
+    @AfterAll
+    static void deleteReports() throws IOException {
+        FileSystemUtils.deleteRecursively(reportDir);
+    }
+
+    @BeforeAll
+    void seed() {
+        User user = new User();
+        user.setUsername("reporter");
+        user.setEmail("reporter@example.com");
+        user.setPassword("unused");
+        user.getRoles().add("USER");
+        Long userId = userRepository.save(user).getId();
+
+        viewed = article("Most viewed, with a comma");
+        liked = article("Say \"liked\"");
+        commented = article("Most commented");
+        article("Quiet");
+
+        jdbcTemplate.update("UPDATE article SET view_count = 50 WHERE id = ?", viewed);
+        jdbcTemplate.update("UPDATE article SET view_count = 10, like_count = 7 WHERE id = ?", liked);
+        jdbcTemplate.update("UPDATE article SET like_count = 3 WHERE id = ?", commented);
+        for (int i = 0; i < 3; i++) {
+            commentService.addComment(commented, userId, "Comment " + i);
+        }
+        commentService.addComment(viewed, userId, "Only one");
+    }
+
+    @Test
+    void writesTopSectionsAsCsvAndJson() throws Exception {
+        ReportService.ReportEntry entry = reportService.generateDailyReport();
+        String baseName = "report_" + entry.date();
+        assertEquals(List.of(baseName + ".csv", baseName + ".json"), entry.files());
+
+        List<String> csv = Files.readAllLines(reportDir.resolve(baseName + ".csv"));
+        assertEquals(List.of(
+                "section,rank,article_id,title,count",
+                "most_viewed,1," + viewed + ",\"Most viewed, with a comma\",50",
+                "most_viewed,2," + liked + ",\"Say \"\"liked\"\"\",10",
+                "most_liked,1," + liked + ",\"Say \"\"liked\"\"\",7",
+                "most_liked,2," + commented + ",Most commented,3",
+                "most_commented,1," + commented + ",Most commented,3",
+                "most_commented,2," + viewed + ",\"Most viewed, with a comma\",1"), csv);
+
+        JsonNode json = objectMapper.readTree(reportDir.resolve(baseName + ".json").toFile());
+        assertEquals(entry.generatedAt().toString(), json.get("generatedAt").asText());
+        assertEquals(2, json.get("most_viewed").size());
+        assertEquals(liked.longValue(), json.get("most_liked").get(0).get("articleId").asLong());
+        assertEquals("Say \"liked\"", json.get("most_liked").get(0).get("title").asText());
+        assertEquals(3, json.get("most_commented").get(0).get("count").asLong());
+
+        // The index lists the day once however often it is regenerated, and no temp files remain
+        reportService.generateDailyReport();
+        JsonNode index = objectMapper.readTree(reportDir.resolve("index.json").toFile());
+        assertEquals(1, index.size());
+        assertEquals(entry.date().toString(), index.get(0).get("date").asText());
+        try (Stream<Path> files = Files.list(reportDir)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void failedWriteKeepsThePreviousFile() throws Exception {
+        ReportService.ReportEntry entry = reportService.generateDailyReport();
+        Path json = reportDir.resolve("report_" + entry.date() + ".json");
+        byte[] before = Files.readAllBytes(json);
+
+        // A directory where the temp file should go makes the JSON write fail before the swap
+        Path blocker = Files.createDirectory(json.resolveSibling(json.getFileName() + ".tmp"));
+        try {
+            assertThrows(IOException.class, () -> reportService.generateDailyReport());
+        } finally {
+            Files.delete(blocker);
+        }
+        assertEquals(new String(before), new String(Files.readAllBytes(json)));
+        assertEquals(entry, reportService.listReports().get(0));
+    }
+
+    @Test
+    void adminsDownloadOnlyIndexedFiles() throws Exception {
+        ReportService.ReportEntry entry = reportService.generateDailyReport();
+        String csvName = entry.files().get(0);
+
+        MvcResult download = mockMvc.perform(get("/admin/reports/" + csvName).session(admin())).andReturn();
+        assertEquals(200, download.getResponse().getStatus());
+        assertTrue(download.getResponse().getHeader("Content-Disposition").contains(csvName));
+        assertEquals(Files.readString(reportDir.resolve(csvName)), download.getResponse().getContentAsString());
+
+        assertEquals(404, mockMvc.perform(get("/admin/reports/index.json").session(admin()))
+                .andReturn().getResponse().getStatus());
+    }
+
+    private Long article(String title) {
+        Article article = new Article();
+        article.setTitle(title);
+        return articleService.saveArticle(article).getId();
+    }
+
+    private static MockHttpSession admin() {
+        UserPrincipal principal = new UserPrincipal(1L, "admin", "unused", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+        return session;
+    }
+}
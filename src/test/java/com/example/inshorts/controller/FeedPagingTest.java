@@ -0,0 +1,136 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.repository.ArticleRepository;
+import com.example.inshorts.service.ArticleService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Keyset paging over the newest feed: following nextCursor visits every article exactly once in
+// feed order, articles published at the same moment included, and the last page says so.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:feed-paging;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FeedPagingTest {
+
+    private static final int ARTICLES = 28;
+    private static final int PAGE_SIZE = 7;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private LocalDateTime base;
+
+    @BeforeAll
+    void seed() {
+        // Three articles per timestamp, so pages break inside runs of equal publishedAt
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < ARTICLES; i++) {
+            article("Paged " + i, base.minusMinutes(i / 3));
+        }
+    }
+
+    // ARTICLES is a multiple of PAGE_SIZE: the last full page must not promise an empty one
+    @Test
+    void cursorsVisitEveryArticleOnceInFeedOrder() throws Exception {
+        List<Long> expected = articleRepository.findAll().stream()
+                .sorted(Comparator.comparing(Article::getPublishedAt).thenComparing(Article::getId).reversed())
+                .map(Article::getId)
+                .toList();
+
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = page(cursor);
+            assertTrue(page.get("items").size() <= PAGE_SIZE);
+            for (JsonNode card : page.get("items")) {
+                visited.add(card.get("id").asLong());
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null && pages <= ARTICLES);
+
+        assertEquals(expected, visited);
+        assertEquals(expected.size() / PAGE_SIZE, pages);
+    }
+
+    // A cursor marks a position, not an offset, so articles published meanwhile shift nothing
+    @Test
+    void newArticlesDoNotShiftLaterPages() throws Exception {
+        JsonNode first = page(null);
+        String cursor = first.get("nextCursor").asText();
+        JsonNode second = page(cursor);
+
+        Long added = article("Published between pages", base.plusMinutes(1));
+        try {
+            JsonNode again = page(cursor);
+            assertEquals(second.get("items"), again.get("items"));
+            assertFalse(again.get("items").findValuesAsText("id").contains(added.toString()));
+        } finally {
+            articleService.deleteArticle(added);
+        }
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        assertEquals(400, mockMvc.perform(get("/api/articles/newest").param("cursor", "not-a-cursor")
+                .param("limit", String.valueOf(PAGE_SIZE))).andReturn().getResponse().getStatus());
+    }
+
+    @Test
+    void shortFeedHasNoNextCursor() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/articles/newest").param("limit", "100")).andReturn();
+        JsonNode page = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertTrue(page.get("items").size() >= ARTICLES);
+        assertNull(page.get("nextCursor").textValue());
+    }
+
+    private JsonNode page(String cursor) throws Exception {
+        var request = get("/api/articles/newest").param("limit", String.valueOf(PAGE_SIZE));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        return objectMapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    private Long article(String title, LocalDateTime publishedAt) {
+        Article article = new Article();
+        article.setTitle(title);
+        article.setPublishedAt(publishedAt);
+        return articleService.saveArticle(article).getId();
+    }
+}
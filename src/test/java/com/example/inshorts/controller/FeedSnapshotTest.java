@@ -0,0 +1,122 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.service.ArticleService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// The shared feeds are written from pre-encoded bytes; these check the HTTP side of that and that
+// a committed change is never hidden behind an old snapshot.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:feed-snapshots;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FeedSnapshotTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @BeforeAll
+    void seed() {
+        // Enough cards that the page is worth compressing
+        for (int i = 0; i < 20; i++) {
+            Article article = new Article();
+            article.setTitle("Snapshot article " + i);
+            article.setSummary("A summary long enough to push the encoded feed page over the gzip threshold " + i);
+            article.setContent("Content " + i);
+            article.setPublishedAt(LocalDateTime.now().minusMinutes(i));
+            articleService.saveArticle(article);
+        }
+    }
+
+    @Test
+    void gzipClientsGetTheSameJsonCompressed() throws Exception {
+        MvcResult plain = mockMvc.perform(get("/api/articles/newest")).andReturn();
+        MvcResult gzipped = mockMvc.perform(get("/api/articles/newest")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")).andReturn();
+
+        assertNull(plain.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", gzipped.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzipped.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+
+        byte[] json = plain.getResponse().getContentAsByteArray();
+        byte[] compressed = gzipped.getResponse().getContentAsByteArray();
+        assertEquals(compressed.length, gzipped.getResponse().getContentLength());
+        assertTrue(compressed.length < json.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void gzipFollowsAcceptEncodingWeights() throws Exception {
+        for (String refused : new String[] {"gzip;q=0", "identity", "gzip;q=0.5, identity", "*;q=0, identity", "br"}) {
+            MvcResult result = mockMvc.perform(get("/api/articles/newest").header(HttpHeaders.ACCEPT_ENCODING, refused)).andReturn();
+            assertNull(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING), refused);
+        }
+        for (String accepted : new String[] {"GZIP", "gzip;q=0.8, identity;q=0.5", "br, *", "deflate, x-gzip ; q=1.0"}) {
+            MvcResult result = mockMvc.perform(get("/api/articles/newest").header(HttpHeaders.ACCEPT_ENCODING, accepted)).andReturn();
+            assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING), accepted);
+        }
+    }
+
+    @Test
+    void trendingAnswersConditionalRequests() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/articles/trending")).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult second = mockMvc.perform(get("/api/articles/trending").header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+        assertEquals(304, second.getResponse().getStatus());
+    }
+
+    // Pages that are not snapshots are tagged by their body too, so the tag is the same on every node
+    @Test
+    void otherFeedPagesAnswerConditionalRequests() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/articles/newest").param("limit", "5")).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(etag, mockMvc.perform(get("/api/articles/newest").param("limit", "5")).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG));
+
+        MvcResult second = mockMvc.perform(get("/api/articles/newest").param("limit", "5")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+        assertEquals(304, second.getResponse().getStatus());
+    }
+
+    @Test
+    void publishedArticlesReplaceTheSnapshot() throws Exception {
+        String etag = mockMvc.perform(get("/api/articles/newest")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Article article = new Article();
+        article.setTitle("Fresh off the press");
+        article.setContent("Content");
+        article.setPublishedAt(LocalDateTime.now().plusMinutes(1));
+        articleService.saveArticle(article);
+
+        // A client holding the old tag gets the new page, not a 304
+        MvcResult newest = mockMvc.perform(get("/api/articles/newest").header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+        assertEquals(200, newest.getResponse().getStatus());
+        assertTrue(newest.getResponse().getContentAsString(StandardCharsets.UTF_8).contains("Fresh off the press"));
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.config.QueryCounter;
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.UserPrincipal;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// /api/articles/liked answers for a whole page of cards in one query, and only for the caller
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:liked-states;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LikedStatesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long reader;
+    private Long first;
+    private Long second;
+    private Long third;
+
+    @BeforeAll
+    void seed() {
+        reader = user("reader");
+        Long other = user("other");
+        first = article("First");
+        second = article("Second");
+        third = article("Third");
+
+        articleService.toggleLike(first, reader);
+        articleService.toggleLike(third, reader);
+        articleService.toggleLike(second, other);
+    }
+
+    // Unknown ids are simply not liked
+    @Test
+    void returnsEveryRequestedIdInOneQuery() throws Exception {
+        MvcResult result = liked(session(reader), first, second, third, 999_999L);
+        assertEquals(200, result.getResponse().getStatus());
+        JsonNode liked = objectMapper.readTree(result.getResponse().getContentAsString()).get("liked");
+        assertEquals(4, liked.size());
+        assertTrue(liked.get(first.toString()).asBoolean());
+        assertFalse(liked.get(second.toString()).asBoolean());
+        assertTrue(liked.get(third.toString()).asBoolean());
+        assertFalse(liked.get("999999").asBoolean());
+
+        QueryCounter.Counts counts = (QueryCounter.Counts) result.getRequest().getAttribute(QueryCounter.REQUEST_ATTRIBUTE);
+        assertEquals(1, counts.statements());
+    }
+
+    @Test
+    void anonymousCallersSeeNothingLikedWithoutQuerying() throws Exception {
+        MvcResult result = liked(null, first, third);
+        assertEquals(200, result.getResponse().getStatus());
+        JsonNode liked = objectMapper.readTree(result.getResponse().getContentAsString()).get("liked");
+        assertFalse(liked.get(first.toString()).asBoolean());
+        assertFalse(liked.get(third.toString()).asBoolean());
+
+        QueryCounter.Counts counts = (QueryCounter.Counts) result.getRequest().getAttribute(QueryCounter.REQUEST_ATTRIBUTE);
+        assertEquals(0, counts.statements());
+    }
+
+    @Test
+    void unlikingShowsUpImmediately() throws Exception {
+        Long article = article("Toggled");
+        articleService.toggleLike(article, reader);
+        assertTrue(likedState(article));
+        articleService.toggleLike(article, reader);
+        assertFalse(likedState(article));
+    }
+
+    @Test
+    void moreIdsThanAPageAreRejected() throws Exception {
+        Long[] ids = LongStream.rangeClosed(1, 101).boxed().toArray(Long[]::new);
+        assertEquals(400, liked(session(reader), ids).getResponse().getStatus());
+    }
+
+    private boolean likedState(Long articleId) throws Exception {
+        MvcResult result = liked(session(reader), articleId);
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("liked").get(articleId.toString()).asBoolean();
+    }
+
+    private MvcResult liked(MockHttpSession session, Long... ids) throws Exception {
+        var request = get("/api/articles/liked")
+                .param("ids", List.of(ids).stream().map(String::valueOf).collect(Collectors.joining(",")));
+        if (session != null) {
+            request.session(session);
+        }
+        return mockMvc.perform(request).andReturn();
+    }
+
+    private Long user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("unused");
+        user.getRoles().add("USER");
+        return userRepository.save(user).getId();
+    }
+
+    private Long article(String title) {
+        Article article = new Article();
+        article.setTitle(title);
+        return articleService.saveArticle(article).getId();
+    }
+
+    private static MockHttpSession session(Long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "reader", "unused", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+        return session;
+    }
+}
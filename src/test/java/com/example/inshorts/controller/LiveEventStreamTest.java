@@ -0,0 +1,189 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.CommentService;
+import com.example.inshorts.service.LiveEventService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Subscribes to /api/articles/stream over real HTTP and checks that publishing, likes and comments
+// reach the client, with several counter changes coalesced into one counts event. A single dispatcher
+// thread makes a client that stops reading visible: until it is cut off, nobody else gets events.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:live;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "inshorts.live.counts-interval-ms=3600000",
+                "inshorts.live.dispatch-threads=1",
+                "inshorts.live.send-timeout-ms=500",
+                "inshorts.live.stall-check-interval-ms=100"})
+@ActiveProfiles("benchmark")
+class LiveEventStreamTest {
+
+    private static final long WAIT_SECONDS = 10;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private LiveEventService liveEventService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private CompletableFuture<HttpResponse<Stream<String>>> stream;
+
+    @AfterEach
+    void disconnect() {
+        if (stream != null) {
+            stream.thenAccept(response -> response.body().close());
+        }
+    }
+
+    @Test
+    void streamsPublishedArticlesAndCoalescedCounts() throws Exception {
+        subscribe();
+
+        Article article = new Article();
+        article.setTitle("Live stream headline");
+        article.setSummary("Summary");
+        article.setContent("Content");
+        article.setAuthor("Author");
+        Long articleId = articleService.saveArticle(article).getId();
+
+        assertEquals("event:article", nextEvent());
+        String published = nextLine();
+        assertTrue(published.startsWith("data:") && published.contains("Live stream headline"), published);
+
+        // Updates don't announce the article again
+        article.setSummary("Edited summary");
+        articleService.saveArticle(article);
+
+        User first = user("live1");
+        User second = user("live2");
+        articleService.toggleLike(articleId, first.getId());
+        articleService.toggleLike(articleId, second.getId());
+        commentService.addComment(articleId, first.getId(), "First!");
+        // The scheduled publish is pushed out of the way, so all three changes land in this one
+        liveEventService.publishCounts();
+
+        assertEquals("event:counts", nextEvent());
+        String counts = nextLine();
+        assertTrue(counts.contains("\"articleId\":" + articleId), counts);
+        assertTrue(counts.contains("\"likeCount\":2") && counts.contains("\"commentCount\":1"), counts);
+    }
+
+    @Test
+    void clientThatStopsReadingDoesNotHoldUpOthers() throws Exception {
+        try (Socket stalled = new Socket()) {
+            // A small receive window, and nothing is ever read from it
+            stalled.setReceiveBufferSize(4096);
+            stalled.connect(new InetSocketAddress("localhost", port));
+            int before = liveEventService.getSubscriberCount();
+            OutputStream out = stalled.getOutputStream();
+            out.write(("GET /api/articles/stream HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            awaitSubscribers(before + 1);
+
+            long evictedBefore = liveEventService.getEvictedSubscribers();
+            // Far more than the socket buffers hold, so the write to the stalled client blocks
+            String filler = "x".repeat(512 * 1024);
+            for (int i = 0; i < 64; i++) {
+                liveEventService.articlePublished(article("Filler " + i, filler));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+            while (liveEventService.getEvictedSubscribers() == evictedBefore && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(evictedBefore + 1, liveEventService.getEvictedSubscribers());
+
+            // The only dispatcher thread is still stuck in the stalled write
+            subscribe();
+            liveEventService.articlePublished(article("After the stall", "Summary"));
+            String line;
+            do {
+                line = nextLine();
+            } while (!line.contains("After the stall"));
+        }
+    }
+
+    private Article article(String title, String summary) {
+        Article article = new Article();
+        article.setTitle(title);
+        article.setSummary(summary);
+        return article;
+    }
+
+    private void subscribe() throws InterruptedException {
+        int before = liveEventService.getSubscriberCount();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/articles/stream"))
+                .header("Accept", "text/event-stream").GET().build();
+        stream = HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        stream.thenAccept(response -> CompletableFuture.runAsync(() -> response.body().forEach(lines::add)));
+        awaitSubscribers(before + 1);
+    }
+
+    private void awaitSubscribers(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+        while (liveEventService.getSubscriberCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, liveEventService.getSubscriberCount());
+    }
+
+    // Skips ids, blank separators and heartbeats up to the next event name
+    private String nextEvent() throws InterruptedException {
+        while (true) {
+            String line = nextLine();
+            if (line.startsWith("event:")) {
+                return line;
+            }
+        }
+    }
+
+    private String nextLine() throws InterruptedException {
+        String line = lines.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(line, "No event received");
+        return line;
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("unused");
+        user.getRoles().add("USER");
+        return userRepository.save(user);
+    }
+}
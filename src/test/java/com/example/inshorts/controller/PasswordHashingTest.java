@@ -0,0 +1,145 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.config.BoundedPasswordEncoder;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:password-hashing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "inshorts.security.bcrypt-strength=6"})
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+class PasswordHashingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // A hash from before the delegating encoder (no {bcrypt} prefix) at a lower cost is replaced by
+    // one at the configured cost the first time its owner logs in
+    @Test
+    void loginUpgradesLegacyHashes() throws Exception {
+        User user = new User();
+        user.setUsername("legacy");
+        user.setEmail("legacy@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+        user.getRoles().add("USER");
+        Long id = userRepository.save(user).getId();
+
+        assertEquals(200, mockMvc.perform(post("/api/auth/login").param("username", "legacy").param("password", "password"))
+                .andReturn().getResponse().getStatus());
+        String upgraded = userRepository.findById(id).orElseThrow().getPassword();
+        assertTrue(upgraded.startsWith("{bcrypt}$2a$06$"), upgraded);
+
+        // The new hash is what later logins check against
+        assertEquals(200, mockMvc.perform(post("/api/auth/login").param("username", "legacy").param("password", "password"))
+                .andReturn().getResponse().getStatus());
+        assertEquals(upgraded, userRepository.findById(id).orElseThrow().getPassword());
+    }
+
+    // A password changed elsewhere (another instance, or the database directly) never reaches this
+    // instance's eviction; the cached entry has to expire instead
+    @Test
+    void cachedUserExpiresAfterTtl() throws Exception {
+        User user = new User();
+        user.setUsername("rotated");
+        user.setEmail("rotated@example.com");
+        user.setPassword(passwordEncoder.encode("password"));
+        user.getRoles().add("USER");
+        Long id = userRepository.save(user).getId();
+
+        Object ttl = ReflectionTestUtils.getField(userService, "userCacheTtlSeconds");
+        ReflectionTestUtils.setField(userService, "userCacheTtlSeconds", 0L);
+        try {
+            assertEquals(200, mockMvc.perform(post("/api/auth/login").param("username", "rotated").param("password", "password"))
+                    .andReturn().getResponse().getStatus());
+            User stored = userRepository.findById(id).orElseThrow();
+            stored.setPassword(passwordEncoder.encode("changed"));
+            userRepository.save(stored);
+
+            assertEquals(200, mockMvc.perform(post("/api/auth/login").param("username", "rotated").param("password", "changed"))
+                    .andReturn().getResponse().getStatus());
+        } finally {
+            ReflectionTestUtils.setField(userService, "userCacheTtlSeconds", ttl);
+        }
+    }
+
+    @Test
+    void saturatedPoolRejectsImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, 10_000);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // One hash running, one queued
+            List<Future<String>> pending = new ArrayList<>();
+            pending.add(callers.submit(() -> encoder.encode("a")));
+            while (encoder.getActive() < 1) {
+                Thread.onSpinWait();
+            }
+            pending.add(callers.submit(() -> encoder.encode("b")));
+            while (encoder.getQueued() < 1) {
+                Thread.onSpinWait();
+            }
+
+            long start = System.nanoTime();
+            assertThrows(BoundedPasswordEncoder.HashingBusyException.class, () -> encoder.encode("c"));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            assertEquals(1, encoder.getRejections());
+
+            release.countDown();
+            assertEquals("a", pending.get(0).get(5, TimeUnit.SECONDS));
+            assertEquals("b", pending.get(1).get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            encoder.shutdown();
+        }
+    }
+}
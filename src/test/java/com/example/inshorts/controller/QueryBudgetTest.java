@@ -0,0 +1,207 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.config.QueryCounter;
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.Comment;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.ArticleRepository;
+import com.example.inshorts.repository.CommentRepository;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.AnalyticsService;
+import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.CommentService;
+import com.example.inshorts.service.ViewCountService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Fails when a read endpoint issues more Hibernate statements than its budget, so an N+1
+// introduced by a mapping or serialization change is caught before it ships.
+// The data is sized so that per-row lazy loading would blow every budget. Views stay pending so
+// they can be counted.
+@SpringBootTest(properties = "inshorts.views.flush-interval-ms=3600000")
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+    private static final int ARTICLES = 30;
+    private static final int COMMENTERS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ViewCountService viewCountService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long commentedArticleId;
+    private Long commenterId;
+
+    @BeforeAll
+    void seed() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < COMMENTERS; i++) {
+            User user = new User();
+            user.setUsername("budget" + i);
+            user.setEmail("budget" + i + "@example.com");
+            user.setPassword("unused");
+            user.getRoles().add("USER");
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+        commenterId = users.get(0).getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        Article commented = null;
+        for (int i = 0; i < ARTICLES; i++) {
+            Article article = new Article();
+            article.setTitle("Budget article " + i);
+            article.setSummary("Summary " + i);
+            article.setContent("Content " + i);
+            article.setAuthor("Author " + i);
+            article.setPublishedAt(now.minusMinutes(i));
+            commented = articleService.saveArticle(article);
+        }
+        commentedArticleId = commented.getId();
+
+        // One comment from each user, so eagerly loaded authors can't be served from the session
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < COMMENTERS; i++) {
+            Comment comment = new Comment();
+            comment.setContent("Comment " + i);
+            comment.setCreatedAt(now.minusSeconds(i));
+            comment.setArticle(commented);
+            comment.setUser(users.get(i));
+            comments.add(comment);
+        }
+        commentRepository.saveAll(comments);
+        commentRepository.recountCommentCounts(0L, Long.MAX_VALUE);
+    }
+
+    @Test
+    void newestFeedStaysWithinBudget() throws Exception {
+        assertWithinBudget("/api/articles/newest?limit=" + ARTICLES, 2);
+    }
+
+    @Test
+    void trendingFeedStaysWithinBudget() throws Exception {
+        assertWithinBudget("/api/articles/trending", 2);
+    }
+
+    // Matching comes from the in-memory index; only the card query touches the database
+    @Test
+    void searchStaysWithinBudget() throws Exception {
+        assertWithinBudget("/api/articles/search?q=budget+article&limit=" + ARTICLES, 1);
+    }
+
+    // The version lookup behind the ETag, then the article
+    @Test
+    void articleDetailStaysWithinBudget() throws Exception {
+        assertWithinBudget("/api/articles/" + commentedArticleId, 2);
+    }
+
+    // A revisit answered with 304 loads nothing but still counts as a view; its one statement is the
+    // JdbcTemplate version lookup
+    @Test
+    void notModifiedArticleDetailRecordsTheView() throws Exception {
+        String url = "/api/articles/" + commentedArticleId;
+        String etag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        long views = viewCountService.getPendingViews(commentedArticleId);
+
+        MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+        assertEquals(304, result.getResponse().getStatus());
+        assertEquals(views + 1, viewCountService.getPendingViews(commentedArticleId));
+        QueryCounter.Counts counts = (QueryCounter.Counts) result.getRequest().getAttribute(QueryCounter.REQUEST_ATTRIBUTE);
+        assertEquals(1, counts.statements());
+        assertEquals(0, counts.entityLoads());
+    }
+
+    // The version lookup behind the ETag, the comments, then their authors in one batch
+    @Test
+    void commentPageStaysWithinBudget() throws Exception {
+        assertWithinBudget("/api/comments/article/" + commentedArticleId + "?limit=" + COMMENTERS, 3);
+    }
+
+    // Article and author are only foreign keys, so adding a comment must not load either
+    @Test
+    void commentWritesLoadNothingAndKeepTheCountInStep() {
+        int before = articleRepository.findById(commentedArticleId).orElseThrow().getCommentCount();
+
+        QueryCounter.reset();
+        Comment comment = commentService.addComment(commentedArticleId, commenterId, "Budget comment");
+        QueryCounter.Counts counts = QueryCounter.current();
+        assertEquals(0, counts.entityLoads(), "addComment loaded entities");
+        assertEquals(before + 1, articleRepository.findById(commentedArticleId).orElseThrow().getCommentCount());
+
+        commentService.deleteComment(comment.getId(), commenterId);
+        assertEquals(before, articleRepository.findById(commentedArticleId).orElseThrow().getCommentCount());
+    }
+
+    // The recount runs one id range at a time; drift at both ends of the table is still corrected
+    @Test
+    void trendingJobRecountsDriftedCountersInChunks() {
+        Long firstId = articleRepository.findAll().stream().map(Article::getId).min(Long::compare).orElseThrow();
+        int comments = articleRepository.findById(commentedArticleId).orElseThrow().getCommentCount();
+        jdbcTemplate.update("UPDATE article SET like_count = 5 WHERE id = ?", firstId);
+        jdbcTemplate.update("UPDATE article SET comment_count = ? WHERE id = ?", comments + 3, commentedArticleId);
+
+        Object chunkSize = ReflectionTestUtils.getField(analyticsService, "trendingChunkSize");
+        ReflectionTestUtils.setField(analyticsService, "trendingChunkSize", 7);
+        try {
+            analyticsService.calculateTrendingArticles();
+        } finally {
+            ReflectionTestUtils.setField(analyticsService, "trendingChunkSize", chunkSize);
+        }
+
+        assertEquals(0, articleRepository.findById(firstId).orElseThrow().getLikeCount());
+        assertEquals(comments, articleRepository.findById(commentedArticleId).orElseThrow().getCommentCount());
+    }
+
+    private void assertWithinBudget(String url, int maxStatements) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andReturn();
+        assertEquals(200, result.getResponse().getStatus(), url);
+
+        QueryCounter.Counts counts = (QueryCounter.Counts) result.getRequest().getAttribute(QueryCounter.REQUEST_ATTRIBUTE);
+        assertTrue(counts.statements() <= maxStatements,
+                url + " issued " + counts.statements() + " statements, budget is " + maxStatements
+                        + " (entity loads " + counts.entityLoads() + ", collection fetches " + counts.collectionFetches() + ")");
+    }
+}
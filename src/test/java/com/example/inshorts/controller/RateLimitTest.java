@@ -0,0 +1,90 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.RateLimitService;
+import com.example.inshorts.service.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Writes beyond a user's bucket are answered with 429 before the controller runs
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:ratelimit;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "inshorts.ratelimit.enabled=true",
+        "inshorts.ratelimit.comment.per-minute=1", "inshorts.ratelimit.comment.burst=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Test
+    void commentsBeyondTheBurstAreRejectedWithRetryAfter() throws Exception {
+        Article article = new Article();
+        article.setTitle("Rate limited article");
+        Long articleId = articleService.saveArticle(article).getId();
+        MockHttpSession alice = login("alice");
+        MockHttpSession bob = login("bob");
+
+        assertEquals(200, comment(articleId, alice).getResponse().getStatus());
+        assertEquals(200, comment(articleId, alice).getResponse().getStatus());
+
+        MvcResult rejected = comment(articleId, alice);
+        assertEquals(429, rejected.getResponse().getStatus());
+        long retryAfter = Long.parseLong(rejected.getResponse().getHeader("Retry-After"));
+        assertTrue(retryAfter > 0 && retryAfter <= 60, "Retry-After " + retryAfter);
+        assertEquals(2, articleService.findArticleById(articleId).orElseThrow().getCommentCount());
+
+        // Other users have their own buckets
+        assertEquals(200, comment(articleId, bob).getResponse().getStatus());
+        assertEquals(1, rateLimitService.getRejections(RateLimitService.COMMENT, RateLimitService.USER_SCOPE));
+    }
+
+    private MvcResult comment(Long articleId, MockHttpSession session) throws Exception {
+        return mockMvc.perform(post("/api/comments/article/" + articleId).session(session)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"content\":\"Hello\"}")).andReturn();
+    }
+
+    private MockHttpSession login(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("unused");
+        user.getRoles().add("USER");
+        user = userRepository.save(user);
+
+        UserPrincipal principal = new UserPrincipal(user.getId(), username, "unused", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+        return session;
+    }
+}
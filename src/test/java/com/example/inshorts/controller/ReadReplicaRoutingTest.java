@@ -0,0 +1,145 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.config.ReadYourWritesFilter;
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.UserPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Runs against two embedded databases. The replica is a copy of the primary taken after seeding;
+// the primary is then changed behind its back, so every read shows which database served it.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "inshorts.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "inshorts.datasource.replica.username=sa"})
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadReplicaRoutingTest {
+
+    private static final String REPLICATED_TITLE = "Replicated title";
+    private static final String PRIMARY_TITLE = "Title only on the primary";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    private Long articleId;
+    private MockHttpSession session;
+
+    @BeforeAll
+    void seedAndReplicate() {
+        Article article = new Article();
+        article.setTitle(REPLICATED_TITLE);
+        articleId = articleService.saveArticle(article).getId();
+
+        User user = new User();
+        user.setUsername("routing");
+        user.setEmail("routing@example.com");
+        user.setPassword("unused");
+        user.getRoles().add("USER");
+        user = userRepository.save(user);
+        UserPrincipal principal = new UserPrincipal(user.getId(), "routing", "unused", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        HikariDataSource writableReplica = new HikariDataSource();
+        writableReplica.setJdbcUrl(replicaDataSource.getJdbcUrl());
+        writableReplica.setUsername("sa");
+        try (writableReplica) {
+            JdbcTemplate replica = new JdbcTemplate(writableReplica);
+            for (String statement : primary.queryForList("SCRIPT NOPASSWORDS NOSETTINGS", String.class)) {
+                if (!statement.startsWith("CREATE USER")) {
+                    replica.execute(statement);
+                }
+            }
+        }
+
+        // Replication lag: the replica hasn't seen this yet
+        primary.update("UPDATE article SET title = ? WHERE id = ?", PRIMARY_TITLE, articleId);
+    }
+
+    @Test
+    void readOnlyServiceCallsUseTheReplica() {
+        assertEquals(REPLICATED_TITLE, articleService.findArticleById(articleId).orElseThrow().getTitle());
+    }
+
+    // Shared cache fills read from the replica; a client that just wrote gets the primary
+    @Test
+    void cacheMissesUseTheReplicaUnlessPinned() throws Exception {
+        assertTrue(mockMvc.perform(get("/api/articles/" + articleId)).andReturn()
+                .getResponse().getContentAsString().contains(REPLICATED_TITLE));
+
+        Article other = new Article();
+        other.setTitle(PRIMARY_TITLE);
+        Long otherId = articleService.saveArticle(other).getId();
+        Cookie recentWrite = new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() + 60_000));
+        assertEquals(404, mockMvc.perform(get("/api/articles/" + otherId)).andReturn().getResponse().getStatus());
+        assertEquals(200, mockMvc.perform(get("/api/articles/" + otherId).cookie(recentWrite)).andReturn().getResponse().getStatus());
+    }
+
+    // The feeds are served from snapshots, so this reads the caller's own like instead
+    @Test
+    void clientsReadTheirOwnWritesFromThePrimary() throws Exception {
+        assertFalse(isLiked(null));
+
+        MvcResult like = mockMvc.perform(post("/api/articles/" + articleId + "/like").session(session)).andReturn();
+        assertEquals(200, like.getResponse().getStatus());
+        Cookie recentWrite = like.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(recentWrite);
+
+        assertTrue(isLiked(recentWrite));
+        assertFalse(isLiked(null));
+    }
+
+    private boolean isLiked(Cookie cookie) throws Exception {
+        var request = get("/api/articles/" + articleId + "/isLiked").session(session);
+        if (cookie != null) {
+            request.cookie(cookie);
+        }
+        return mockMvc.perform(request).andReturn().getResponse().getContentAsString().contains("true");
+    }
+}
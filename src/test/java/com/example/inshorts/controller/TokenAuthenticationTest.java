@@ -0,0 +1,218 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.config.QueryCounter;
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.CommentService;
+import com.example.inshorts.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:token-auth;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "inshorts.security.tokens.enabled=true",
+        "inshorts.security.tokens.secret=test-secret-that-is-at-least-32-bytes-long"})
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TokenAuthenticationTest {
+
+    private static final String PASSWORD = "password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long userId;
+
+    @BeforeAll
+    void createUser() {
+        userId = createUser("stateless", "USER");
+    }
+
+    private Long createUser(String username, String... roles) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        user.getRoles().addAll(Set.of(roles));
+        return userRepository.save(user).getId();
+    }
+
+    // The token carries the id and roles, so an authenticated request loads nothing and stores nothing
+    @Test
+    void loginIssuesTokensThatAuthenticateWithoutSessionOrLookup() throws Exception {
+        JsonNode tokens = login();
+        assertEquals("Bearer", tokens.get("tokenType").asText());
+
+        MvcResult result = mockMvc.perform(get("/api/auth/user")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("accessToken").asText())).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        JsonNode user = objectMapper.readTree(result.getResponse().getContentAsString()).get("user");
+        assertEquals(userId, user.get("id").asLong());
+        assertTrue(user.get("roles").toString().contains("ROLE_USER"));
+
+        QueryCounter.Counts counts = (QueryCounter.Counts) result.getRequest().getAttribute(QueryCounter.REQUEST_ATTRIBUTE);
+        assertEquals(0, counts.statements());
+        assertNull(result.getRequest().getSession(false));
+    }
+
+    @Test
+    void forgedAndRefreshTokensAreRejected() throws Exception {
+        JsonNode tokens = login();
+        String access = tokens.get("accessToken").asText();
+        String forged = access.substring(0, access.length() - 2) + (access.endsWith("AA") ? "BB" : "AA");
+
+        for (String token : new String[] {forged, tokens.get("refreshToken").asText(), "not-a-token"}) {
+            MvcResult result = mockMvc.perform(get("/api/auth/user").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)).andReturn();
+            assertEquals(401, result.getResponse().getStatus(), token);
+            assertTrue(result.getResponse().getHeader(HttpHeaders.WWW_AUTHENTICATE).contains("invalid_token"));
+        }
+    }
+
+    @Test
+    void refreshPicksUpRoleChanges() throws Exception {
+        JsonNode tokens = login();
+        userService.updateRoles(userId, Set.of("USER", "ADMIN"));
+        try {
+            MvcResult refreshed = mockMvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("refreshToken", tokens.get("refreshToken").asText()))))
+                    .andReturn();
+            assertEquals(200, refreshed.getResponse().getStatus());
+            String access = objectMapper.readTree(refreshed.getResponse().getContentAsString()).get("accessToken").asText();
+            assertNotEquals(tokens.get("accessToken").asText(), access);
+
+            String user = mockMvc.perform(get("/api/auth/user").header(HttpHeaders.AUTHORIZATION, "Bearer " + access))
+                    .andReturn().getResponse().getContentAsString();
+            assertTrue(user.contains("ROLE_ADMIN"));
+        } finally {
+            userService.updateRoles(userId, Set.of("USER"));
+        }
+
+        MvcResult rejected = mockMvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + tokens.get("accessToken").asText() + "\"}")).andReturn();
+        assertEquals(401, rejected.getResponse().getStatus());
+    }
+
+    // The demoted admin's access token still says ADMIN; moderation must not trust it
+    @Test
+    void demotedAdminLosesCommentModerationAtOnce() throws Exception {
+        Long moderatorId = createUser("moderator", "USER", "ADMIN");
+        String access = "Bearer " + login("moderator").get("accessToken").asText();
+        Article article = new Article();
+        article.setTitle("Moderated");
+        Long articleId = articleService.saveArticle(article).getId();
+        Long first = commentService.addComment(articleId, userId, "First").getId();
+        Long second = commentService.addComment(articleId, userId, "Second").getId();
+
+        assertEquals(204, mockMvc.perform(delete("/api/comments/" + first).header(HttpHeaders.AUTHORIZATION, access))
+                .andReturn().getResponse().getStatus());
+
+        MvcResult demoted = mockMvc.perform(put("/api/admin/users/" + moderatorId + "/roles")
+                .header(HttpHeaders.AUTHORIZATION, access)
+                .contentType(MediaType.APPLICATION_JSON).content("[\"USER\"]")).andReturn();
+        assertEquals(200, demoted.getResponse().getStatus());
+        assertEquals("[\"USER\"]", objectMapper.readTree(demoted.getResponse().getContentAsString()).get("roles").toString());
+
+        assertEquals(403, mockMvc.perform(delete("/api/comments/" + second).header(HttpHeaders.AUTHORIZATION, access))
+                .andReturn().getResponse().getStatus());
+    }
+
+    // The Thymeleaf admin pages only carry a cookie, so they keep a session even in the stateless mode
+    @Test
+    void adminPagesLogInWithASession() throws Exception {
+        createUser("pages", "USER", "ADMIN");
+        MvcResult anonymous = mockMvc.perform(get("/admin")).andReturn();
+        assertEquals(302, anonymous.getResponse().getStatus());
+        assertTrue(anonymous.getResponse().getRedirectedUrl().endsWith("/login"));
+        assertEquals(200, mockMvc.perform(get("/login")).andReturn().getResponse().getStatus());
+
+        MvcResult login = mockMvc.perform(post("/login").param("username", "pages").param("password", PASSWORD))
+                .andReturn();
+        assertEquals("/admin", login.getResponse().getRedirectedUrl());
+        MockHttpSession session = (MockHttpSession) login.getRequest().getSession(false);
+        assertNotNull(session);
+
+        assertEquals(200, mockMvc.perform(get("/admin").session(session)).andReturn().getResponse().getStatus());
+        assertEquals(401, mockMvc.perform(get("/actuator/metrics")).andReturn().getResponse().getStatus());
+    }
+
+    @Test
+    void prometheusScrapeNeedsMonitoringRole() throws Exception {
+        createUser("scraper", "MONITORING");
+        MvcResult anonymous = mockMvc.perform(get("/actuator/prometheus")).andReturn();
+        assertEquals(401, anonymous.getResponse().getStatus());
+        assertTrue(anonymous.getResponse().getHeader(HttpHeaders.WWW_AUTHENTICATE).startsWith("Basic"));
+
+        assertEquals(403, mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("stateless")))
+                .andReturn().getResponse().getStatus());
+        // Tests run without metrics export, so past security the endpoint itself answers 404
+        MvcResult scrape = mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("scraper")))
+                .andReturn();
+        assertEquals(404, scrape.getResponse().getStatus());
+        assertNull(scrape.getRequest().getSession(false));
+    }
+
+    private static String basic(String username) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private JsonNode login() throws Exception {
+        return login("stateless");
+    }
+
+    private JsonNode login(String username) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login").param("username", username).param("password", PASSWORD))
+                .andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        assertNull(result.getRequest().getSession(false));
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
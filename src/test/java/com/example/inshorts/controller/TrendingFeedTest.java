@@ -0,0 +1,127 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.AnalyticsService;
+import com.example.inshorts.service.ArticleService;
+import com.example.inshorts.service.FeedSnapshotService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Trending ranks by (views + 2 * likes + 3 * comments) scaled by freshness. The hourly job sets the
+// scores from the stored counters; likes in between move an article as soon as the snapshot refreshes.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:trending-feed;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TrendingFeedTest {
+
+    private static final int USERS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private FeedSnapshotService feedSnapshotService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private Long quiet;
+    private Long popular;
+    private Long liked;
+    private Long older;
+
+    @BeforeAll
+    void seed() {
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("trending" + i);
+            user.setEmail("trending" + i + "@example.com");
+            user.setPassword("unused");
+            user.getRoles().add("USER");
+            userIds.add(userRepository.save(user).getId());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        quiet = article("Quiet", now);
+        popular = article("Popular", now);
+        liked = article("Liked once", now);
+        // Same engagement as "Liked once", but three days old
+        older = article("Older", now.minusDays(3));
+
+        like(popular, 2);
+        like(liked, 1);
+        like(older, 1);
+        analyticsService.calculateTrendingArticles();
+    }
+
+    @Test
+    void ranksByEngagementThenFreshness() throws Exception {
+        List<Long> seeded = List.of(popular, liked, older, quiet);
+        assertEquals(seeded, trendingIds().stream().filter(seeded::contains).toList());
+    }
+
+    @Test
+    void likesReorderTheFeedOnTheNextRefresh() throws Exception {
+        Long rising = article("Rising", LocalDateTime.now());
+        analyticsService.calculateTrendingArticles();
+        List<Long> before = trendingIds();
+        assertTrue(before.indexOf(rising) > before.indexOf(liked));
+
+        like(rising, 3);
+        feedSnapshotService.rebuildAll();
+        assertEquals(rising, trendingIds().get(0));
+    }
+
+    private List<Long> trendingIds() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/articles/trending")).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode card : objectMapper.readTree(result.getResponse().getContentAsByteArray())) {
+            ids.add(card.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private Long article(String title, LocalDateTime publishedAt) {
+        Article article = new Article();
+        article.setTitle(title);
+        article.setPublishedAt(publishedAt);
+        return articleService.saveArticle(article).getId();
+    }
+
+    private void like(Long articleId, int users) {
+        for (int i = 0; i < users; i++) {
+            articleService.toggleLike(articleId, userIds.get(i));
+        }
+    }
+}
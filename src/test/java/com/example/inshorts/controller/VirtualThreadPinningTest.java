@@ -0,0 +1,225 @@
+package com.example.inshorts.controller;
+
+import com.example.inshorts.model.Article;
+import com.example.inshorts.model.User;
+import com.example.inshorts.repository.UserRepository;
+import com.example.inshorts.service.ArticleService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Runs the app in the virtual-threads profile and fails if real HTTP traffic (feeds, detail views,
+// likes, comments, logins) or the view-count flush parks a virtual thread while it holds a monitor.
+// Pinning stalls the carrier thread, so one synchronized block around JDBC or file I/O would cap
+// concurrency at the number of carriers. The database is reached over TCP, like MySQL in production,
+// so driver calls really block on socket reads. With few carriers, pinning around the connection pool
+// deadlocks outright, so requests time out instead of hanging. Needs Java 21; skipped on older runtimes.
+// Runs only under the pinning profile (./mvnw -Ppinning verify), not in the regular test run.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"inshorts.views.flush-interval-ms=100", "spring.datasource.hikari.connection-timeout=5000"})
+@ActiveProfiles({"benchmark", "virtual-threads"})
+@EnabledForJreRange(min = JRE.JAVA_21)
+@Tag("pinning")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VirtualThreadPinningTest {
+
+    // Fewer clients than pooled connections, so a clean run never waits on the pool
+    private static final int CLIENTS = 8;
+    private static final int ROUNDS = 10;
+    private static final String PASSWORD = "password";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(20);
+    private static final int REPORTED_EVENTS = 3;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private static Server database;
+
+    private final List<Long> articleIds = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void databaseOverTcp(DynamicPropertyRegistry registry) throws SQLException {
+        database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:pinning;MODE=MySQL;DB_CLOSE_DELAY=-1");
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (database != null) {
+            database.stop();
+        }
+    }
+
+    @BeforeAll
+    void seed() {
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            User user = new User();
+            user.setUsername("pinning" + i);
+            user.setEmail("pinning" + i + "@example.com");
+            user.setPassword(passwordHash);
+            user.getRoles().add("USER");
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 10; i++) {
+            Article article = new Article();
+            article.setTitle("Pinning article " + i);
+            article.setSummary("Summary " + i);
+            article.setContent("Content " + i);
+            article.setAuthor("Author " + i);
+            article.setPublishedAt(now.minusMinutes(i));
+            articleIds.add(articleService.saveArticle(article).getId());
+        }
+    }
+
+    @Test
+    void tomcatHandlesRequestsOnVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        assertInstanceOf(VirtualThreadExecutor.class, webServer.getTomcat().getConnector().getProtocolHandler().getExecutor());
+    }
+
+    @Test
+    void trafficDoesNotPinCarrierThreads() throws Exception {
+        // Warm up with one client so one-off class initialization doesn't show up as pinning
+        drive(1);
+
+        List<RecordedEvent> pinned;
+        Throwable trafficFailure = null;
+        Path dump = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            try {
+                drive(CLIENTS);
+            } catch (ExecutionException e) {
+                // Usually a pool timeout caused by pinning; report the pinning first
+                trafficFailure = e.getCause();
+            }
+            recording.stop();
+            recording.dump(dump);
+            pinned = RecordingFile.readAllEvents(dump);
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+
+        StringBuilder report = new StringBuilder();
+        for (RecordedEvent event : pinned.subList(0, Math.min(pinned.size(), REPORTED_EVENTS))) {
+            report.append("\nPinned for ").append(event.getDuration().toMillis()).append(" ms at:");
+            if (event.getStackTrace() != null) {
+                for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                    report.append("\n    ").append(frame.getMethod().getType().getName())
+                            .append('.').append(frame.getMethod().getName());
+                }
+            }
+        }
+        assertTrue(pinned.isEmpty(), pinned.size() + " virtual thread pinning events" + report);
+        if (trafficFailure != null) {
+            fail("Traffic failed without pinning", trafficFailure);
+        }
+    }
+
+    // Every client logs in, then mixes reads and writes as fast as it can
+    private void drive(int clientCount) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(clientCount);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < clientCount; i++) {
+                int client = i;
+                results.add(clients.submit(() -> {
+                    runClient(client);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private void runClient(int client) throws Exception {
+        HttpClient http = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+        String base = "http://localhost:" + port;
+        send(http, HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=pinning" + client + "&password=" + PASSWORD))
+                .build());
+
+        for (int round = 0; round < ROUNDS; round++) {
+            Long articleId = articleIds.get((client + round) % articleIds.size());
+            send(http, HttpRequest.newBuilder(URI.create(base + "/api/articles/newest")).GET().build());
+            send(http, HttpRequest.newBuilder(URI.create(base + "/api/articles/trending")).GET().build());
+            send(http, HttpRequest.newBuilder(URI.create(base + "/api/articles/" + articleId)).GET().build());
+            send(http, HttpRequest.newBuilder(URI.create(base + "/api/comments/article/" + articleId)).GET().build());
+            send(http, HttpRequest.newBuilder(URI.create(base + "/api/articles/" + articleId + "/like"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build());
+            send(http, HttpRequest.newBuilder(URI.create(base + "/api/comments/article/" + articleId))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"Pinning test comment\"}")).build());
+        }
+    }
+
+    private void send(HttpClient http, HttpRequest request) throws Exception {
+        HttpRequest timed = HttpRequest.newBuilder(request, (name, value) -> true).timeout(REQUEST_TIMEOUT).build();
+        HttpResponse<Void> response = http.send(timed, HttpResponse.BodyHandlers.discarding());
+        assertTrue(response.statusCode() < 400, request.method() + " " + request.uri() + " returned " + response.statusCode());
+    }
+}
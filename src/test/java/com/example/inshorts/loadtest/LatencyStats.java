@@ -0,0 +1,46 @@
+package com.example.inshorts.loadtest;
+
+import java.util.Arrays;
+
+// Latency samples for one endpoint, with nearest-rank percentiles
+class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private int errors;
+
+    void record(long nanos, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyStats other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samples[i], true);
+        }
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0.0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
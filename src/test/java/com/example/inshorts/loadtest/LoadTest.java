@@ -0,0 +1,232 @@
+package com.example.inshorts.loadtest;
+
+import com.example.inshorts.benchmark.BenchmarkContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// End-to-end load test: boots the app on the embedded database and drives a mix of feed reads,
+// detail views, likes, comments and logins over HTTP. Run with ./mvnw -Ploadtest test
+@Tag("load")
+class LoadTest {
+
+    private static final String[] ENDPOINTS = {"feed", "detail", "like", "comment", "login"};
+
+    private static BenchmarkContext benchmarkContext;
+    private static Properties settings;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startApplication() throws IOException {
+        settings = new Properties();
+        try (InputStream in = LoadTest.class.getResourceAsStream("/loadtest.properties")) {
+            settings.load(in);
+        }
+        settings.putAll(System.getProperties());
+
+        // Same thread and connection budget in both modes, so their runs are comparable
+        benchmarkContext = BenchmarkContext.start(
+                "spring.threads.virtual.enabled=" + settings.getProperty("loadtest.virtual-threads"),
+                "server.tomcat.threads.max=" + settings.getProperty("loadtest.tomcat-threads"),
+                "spring.datasource.hikari.maximum-pool-size=" + settings.getProperty("loadtest.pool-size"));
+        int port = ((WebServerApplicationContext) benchmarkContext.context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        if (benchmarkContext != null) {
+            benchmarkContext.close();
+        }
+    }
+
+    @Test
+    void mixedTrafficStaysWithinLatencyBudgets() throws Exception {
+        int users = intSetting("loadtest.users");
+        long warmupNanos = Duration.ofSeconds(intSetting("loadtest.warmup-seconds")).toNanos();
+        long durationNanos = Duration.ofSeconds(intSetting("loadtest.duration-seconds")).toNanos();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long deadline = measureFrom + durationNanos;
+
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        List<Future<Map<String, LatencyStats>>> results = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            int userIndex = i;
+            results.add(pool.submit(() -> new VirtualUser(userIndex, measureFrom, deadline).run()));
+        }
+
+        Map<String, LatencyStats> totals = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            totals.put(endpoint, new LatencyStats());
+        }
+        for (Future<Map<String, LatencyStats>> result : results) {
+            result.get().forEach((endpoint, stats) -> totals.get(endpoint).merge(stats));
+        }
+        pool.shutdown();
+
+        double seconds = durationNanos / 1_000_000_000.0;
+        List<String> violations = report(totals, seconds);
+        assertTrue(violations.isEmpty(), "Load test budgets exceeded:\n" + String.join("\n", violations));
+    }
+
+    private List<String> report(Map<String, LatencyStats> totals, double seconds) throws IOException {
+        double maxErrorRate = Double.parseDouble(settings.getProperty("loadtest.max-error-rate"));
+        List<String> violations = new ArrayList<>();
+
+        Path reportFile = Paths.get("target", "loadtest-report.csv");
+        Files.createDirectories(reportFile.getParent());
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(reportFile))) {
+            System.out.printf("virtual threads: %s, tomcat threads: %s, pool size: %s%n",
+                    settings.getProperty("loadtest.virtual-threads"), settings.getProperty("loadtest.tomcat-threads"),
+                    settings.getProperty("loadtest.pool-size"));
+            csv.println("endpoint,requests,throughput_rps,errors,p50_ms,p95_ms,p99_ms");
+            System.out.printf("%-8s %9s %10s %7s %9s %9s %9s%n", "endpoint", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms");
+
+            for (Map.Entry<String, LatencyStats> entry : totals.entrySet()) {
+                String endpoint = entry.getKey();
+                LatencyStats stats = entry.getValue();
+                double p50 = stats.percentileMillis(50);
+                double p95 = stats.percentileMillis(95);
+                double p99 = stats.percentileMillis(99);
+                double throughput = stats.count() / seconds;
+
+                System.out.printf("%-8s %9d %10.1f %7d %9.2f %9.2f %9.2f%n", endpoint, stats.count(), throughput, stats.errors(), p50, p95, p99);
+                csv.printf("%s,%d,%.1f,%d,%.2f,%.2f,%.2f%n", endpoint, stats.count(), throughput, stats.errors(), p50, p95, p99);
+
+                checkBudget(violations, endpoint, "p95", p95);
+                checkBudget(violations, endpoint, "p99", p99);
+                if (stats.count() > 0 && (double) stats.errors() / stats.count() > maxErrorRate) {
+                    violations.add(endpoint + ": error rate " + stats.errors() + "/" + stats.count());
+                }
+            }
+        }
+        return violations;
+    }
+
+    private void checkBudget(List<String> violations, String endpoint, String percentile, double actualMillis) {
+        String budget = settings.getProperty("budget." + endpoint + "." + percentile + "-ms");
+        if (budget != null && actualMillis > Double.parseDouble(budget)) {
+            violations.add(String.format("%s %s %.2f ms > budget %s ms", endpoint, percentile, actualMillis, budget));
+        }
+    }
+
+    private static int intSetting(String key) {
+        return Integer.parseInt(settings.getProperty(key));
+    }
+
+    // One logged-in client with its own session cookie, issuing requests back to back
+    private static class VirtualUser {
+
+        private final HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        private final Random random;
+        private final String username;
+        private final long measureFrom;
+        private final long deadline;
+        private final int[] weights = new int[ENDPOINTS.length];
+        private final int totalWeight;
+        private final Map<String, LatencyStats> stats = new LinkedHashMap<>();
+
+        VirtualUser(int index, long measureFrom, long deadline) {
+            this.random = new Random(index);
+            this.username = "user" + (index % BenchmarkContext.USERS);
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+            int sum = 0;
+            for (int i = 0; i < ENDPOINTS.length; i++) {
+                weights[i] = intSetting("loadtest.weight." + ENDPOINTS[i]);
+                sum += weights[i];
+                stats.put(ENDPOINTS[i], new LatencyStats());
+            }
+            this.totalWeight = sum;
+        }
+
+        Map<String, LatencyStats> run() throws Exception {
+            execute("login", loginRequest());
+            while (System.nanoTime() < deadline) {
+                String endpoint = pickEndpoint();
+                execute(endpoint, request(endpoint));
+            }
+            return stats;
+        }
+
+        private String pickEndpoint() {
+            int roll = random.nextInt(totalWeight);
+            for (int i = 0; i < ENDPOINTS.length; i++) {
+                roll -= weights[i];
+                if (roll < 0) {
+                    return ENDPOINTS[i];
+                }
+            }
+            return ENDPOINTS[0];
+        }
+
+        private HttpRequest request(String endpoint) {
+            long articleId = benchmarkContext.articleIds.get(random.nextInt(benchmarkContext.articleIds.size()));
+            return switch (endpoint) {
+                case "feed" -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/articles/newest")).GET().build();
+                case "detail" -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/articles/" + articleId)).GET().build();
+                case "like" -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/articles/" + articleId + "/like"))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build();
+                case "comment" -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/comments/article/" + articleId))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"Load test comment\"}")).build();
+                default -> loginRequest();
+            };
+        }
+
+        private HttpRequest loginRequest() {
+            String form = "username=" + username + "&password=" + BenchmarkContext.PASSWORD;
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+        }
+
+        private void execute(String endpoint, HttpRequest request) throws InterruptedException {
+            long begin = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                success = response.statusCode() < 400;
+            } catch (IOException e) {
+                success = false;
+            }
+            long end = System.nanoTime();
+            // Samples taken during warmup are dropped
+            if (begin >= measureFrom) {
+                stats.get(endpoint).record(end - begin, success);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.inshorts.repository;
+
+import com.example.inshorts.config.QueryCounter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs each repository query on a seeded copy of the migrated schema and checks with EXPLAIN that
+// it reads through an index instead of scanning the table. Queries that read every row on purpose
+// (findAll, findAllIds, findTrendingScores) are left out.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int USERS = 200;
+    private static final int ARTICLES = 2000;
+    private static final int COMMENTS = 6000;
+    private static final int LIKES = 6000;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{i, "plan" + i, "plan" + i + "@example.com", "unused"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password) VALUES (?, ?, ?, ?)", users);
+
+        List<Object[]> articles = new ArrayList<>();
+        for (int i = 1; i <= ARTICLES; i++) {
+            Timestamp at = Timestamp.valueOf(NOW.minusMinutes(i));
+            articles.add(new Object[]{i, "Title " + i, "Summary", "Content", "Author", at, i % 97, i % 89, 0, at});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO article (id, title, summary, content, author, published_at, view_count, " +
+                "like_count, comment_count, updated_at, version, comment_version, trending_score) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0)", articles);
+
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 1; i <= COMMENTS; i++) {
+            comments.add(new Object[]{i, "Comment", Timestamp.valueOf(NOW.minusSeconds(i)), 1 + i % USERS, 1 + i % ARTICLES});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, content, created_at, user_id, article_id) VALUES (?, ?, ?, ?, ?)", comments);
+
+        List<Object[]> likes = new ArrayList<>();
+        for (int i = 0; i < LIKES; i++) {
+            likes.add(new Object[]{1 + i % ARTICLES, 1 + i / (LIKES / USERS)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO article_likes (article_id, user_id) VALUES (?, ?)", likes);
+
+        // Selectivity statistics, so the planner costs indexes against this data
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @BeforeEach
+    void resetStatements() {
+        QueryCounter.reset();
+    }
+
+    @Test
+    void articleFeedQueriesUsePublishedAtIndex() {
+        articleRepository.findAllByOrderByPublishedAtDesc();
+        assertSortedBy("IDX_ARTICLE_PUBLISHED_AT");
+
+        articleRepository.findNewestCards(PageRequest.ofSize(21));
+        assertSortedBy("IDX_ARTICLE_PUBLISHED_AT");
+
+        articleRepository.findNewestCardsBefore(NOW.minusMinutes(100), 100L, PageRequest.ofSize(21));
+        assertSortedBy("IDX_ARTICLE_PUBLISHED_AT");
+
+        articleRepository.findByPublishedAtAfterOrderByPublishedAtDesc(NOW.minusMinutes(10));
+        assertUsesIndex("IDX_ARTICLE_PUBLISHED_AT");
+    }
+
+    @Test
+    void articleTopNQueriesUseCounterIndexes() {
+        articleRepository.findTop10ByOrderByViewCountDesc();
+        assertSortedBy("IDX_ARTICLE_VIEW_COUNT");
+
+        articleRepository.findTopCardsByViewCount(PageRequest.ofSize(10));
+        assertSortedBy("IDX_ARTICLE_VIEW_COUNT");
+
+        articleRepository.findTopCardsByLikeCount(PageRequest.ofSize(10));
+        assertSortedBy("IDX_ARTICLE_LIKE_COUNT");
+    }
+
+    @Test
+    void articleLookupsUsePrimaryKeyOrUpdatedAt() {
+        articleRepository.findDetailById(1L);
+        assertUsesIndex("PRIMARY_KEY");
+
+        articleRepository.findCardsByIdIn(List.of(1L, 2L, 3L));
+        assertUsesIndex("PRIMARY_KEY");
+
+        articleRepository.findCountsByIdIn(List.of(1L, 2L, 3L));
+        assertUsesIndex("PRIMARY_KEY");
+
+        articleRepository.findEngagementChunk(1000L, PageRequest.ofSize(100));
+        assertSortedBy("PRIMARY_KEY");
+
+        articleRepository.findChunkAfter(1000L, PageRequest.ofSize(100));
+        assertSortedBy("PRIMARY_KEY");
+
+        articleRepository.findUpdatedSince(NOW.minusMinutes(5));
+        assertUsesIndex("IDX_ARTICLE_UPDATED_AT");
+    }
+
+    @Test
+    void commentQueriesUseArticleIdIndexes() {
+        // H2 only credits an index with the ORDER BY when the sort starts at its first column, so it may
+        // pick the foreign key index on article_id here; either way the page is an index lookup by article
+        commentRepository.findByArticleIdOrderByCreatedAtDescIdDesc(1L, PageRequest.ofSize(21));
+        assertUsesIndex("ARTICLE_ID = ?1");
+
+        commentRepository.findByArticleIdBefore(1L, NOW.minusSeconds(100), 100L, PageRequest.ofSize(21));
+        assertUsesIndex("ARTICLE_ID = ?1");
+
+        // Grouped in index order instead of hashing every comment
+        commentRepository.findTopCommentCounts(PageRequest.ofSize(10));
+        assertUsesIndex("group sorted");
+
+        commentRepository.adjustCommentCount(1L, 0);
+        assertUsesIndex("PRIMARY_KEY");
+
+        // Only the id range is visited, and each article's comments are counted through an article_id index
+        commentRepository.recountCommentCounts(0L, 1000L);
+        String recount = explain(lastCall());
+        assertContains(recount, "PRIMARY_KEY");
+        assertContains(recount, "ARTICLE_ID = A.ID");
+        assertFalse(recount.contains("COMMENTS.tableScan"), recount);
+    }
+
+    @Test
+    void likeQueriesUsePrimaryKey() {
+        assertIndexed(explain(ArticleLikeRepository.EXISTS_SQL), "PRIMARY_KEY");
+        assertIndexed(explain(ArticleLikeRepository.DELETE_SQL), "PRIMARY_KEY");
+        assertIndexed(explain(ArticleLikeRepository.ADJUST_COUNT_SQL), "PRIMARY_KEY");
+        assertIndexed(explain(ArticleLikeRepository.LIKED_IDS_SQL
+                .replace(":userId", "?").replace(":articleIds", "?, ?, ?")), "PRIMARY_KEY");
+        // Only the id range is visited; its likes are counted through an article_id index
+        String recount = explain(ArticleLikeRepository.RECOUNT_SQL);
+        assertContains(recount, "PRIMARY_KEY");
+        assertContains(recount, "ARTICLE_ID = A.ID");
+        assertFalse(recount.contains("ARTICLE_LIKES.tableScan"), recount);
+    }
+
+    @Test
+    void userLookupsUseUniqueIndexes() {
+        userRepository.findByUsername("plan1");
+        assertUsesIndex("UK_USERS_USERNAME");
+
+        userRepository.existsByUsername("plan1");
+        assertUsesIndex("UK_USERS_USERNAME");
+
+        userRepository.findByEmail("plan1@example.com");
+        assertUsesIndex("UK_USERS_EMAIL");
+
+        userRepository.existsByEmail("plan1@example.com");
+        assertUsesIndex("UK_USERS_EMAIL");
+    }
+
+    // Checks the query of the last repository call; related rows it loads afterwards are not looked at
+    private void assertUsesIndex(String index) {
+        assertIndexed(explain(lastCall()), index);
+    }
+
+    // The index also delivers the rows in ORDER BY order, so no sort step is needed
+    private void assertSortedBy(String index) {
+        String plan = explain(lastCall());
+        assertIndexed(plan, index);
+        assertContains(plan, "index sorted");
+    }
+
+    private static String lastCall() {
+        return QueryCounter.firstStatement();
+    }
+
+    private static void assertIndexed(String plan, String index) {
+        assertContains(plan, index);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    private static void assertContains(String plan, String text) {
+        assertTrue(plan.contains(text), "Expected " + text + " in plan:\n" + plan);
+    }
+
+    // H2 plans name the index each table is read through, or tableScan. The EXPLAIN is a statement
+    // too, so the counter is reset after it for the next repository call.
+    private String explain(String sql) {
+        String plan = jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : null);
+        QueryCounter.reset();
+        return plan;
+    }
+}
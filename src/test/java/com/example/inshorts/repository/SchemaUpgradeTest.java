@@ -0,0 +1,74 @@
+package com.example.inshorts.repository;
+
+import com.example.inshorts.AWebsiteLikeInshortsWithAdminDashboardApplication;
+import com.example.inshorts.model.Article;
+import com.example.inshorts.service.ArticleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A database created by the first release (ddl-auto=update, no Flyway history) must start under the
+// current code: Flyway baselines it at V1, the later scripts add and backfill the new columns, and
+// Hibernate's schema validation accepts the result.
+class SchemaUpgradeTest {
+
+    private static final String URL = "jdbc:h2:mem:schema-upgrade;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void firstReleaseDatabaseUpgradesInPlace() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline-5552b98.sql")).execute(dataSource);
+        JdbcTemplate old = new JdbcTemplate(dataSource);
+        Timestamp published = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 12, 0));
+        old.update("INSERT INTO users (id, username, email, password) VALUES (1, 'a', 'a@example.com', 'x'), (2, 'b', 'b@example.com', 'x')");
+        old.update("INSERT INTO article (id, title, published_at, view_count) VALUES (1, 'One', ?, 5), (2, 'Two', ?, 0), (3, 'Three', NULL, 0)",
+                published, published);
+        old.update("INSERT INTO article_likes (article_id, user_id) VALUES (1, 1), (1, 2), (2, 1)");
+        old.update("INSERT INTO comments (content, created_at, user_id, article_id) VALUES ('c', ?, 1, 1), ('c', ?, 1, 3), ('c', ?, 2, 3)",
+                published, published, published);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AWebsiteLikeInshortsWithAdminDashboardApplication.class)
+                .profiles("benchmark")
+                .run("--spring.datasource.url=" + URL);
+        try {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            List<Map<String, Object>> history = jdbcTemplate.queryForList(
+                    "SELECT \"version\", \"type\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL ORDER BY \"installed_rank\"");
+            assertEquals("1", history.get(0).get("version"));
+            assertEquals("BASELINE", history.get(0).get("type"));
+            assertEquals(List.of("2", "3", "4"), history.subList(1, history.size()).stream().map(row -> row.get("version")).toList());
+
+            // Counts come from the existing likes and comments, not from the hourly reconciliation
+            List<Map<String, Object>> counts = jdbcTemplate.queryForList(
+                    "SELECT like_count, comment_count FROM article ORDER BY id");
+            assertEquals(List.of(2, 1, 0), counts.stream().map(row -> ((Number) row.get("like_count")).intValue()).toList());
+            assertEquals(List.of(1, 0, 2), counts.stream().map(row -> ((Number) row.get("comment_count")).intValue()).toList());
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM article WHERE updated_at IS NULL", Integer.class));
+
+            ArticleService articleService = context.getBean(ArticleService.class);
+            Article existing = articleService.findArticleById(1L).orElseThrow();
+            assertEquals(5, existing.getViewCount());
+            assertEquals(2, existing.getLikeCount());
+
+            // New ids continue past the ones the first release handed out
+            Article article = new Article();
+            article.setTitle("Four");
+            article.setPublishedAt(LocalDateTime.now());
+            assertTrue(articleService.saveArticle(article).getId() > 3);
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.inshorts.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveEventServiceTest {
+
+    private final LiveEventService liveEventService = new LiveEventService(1);
+
+    @AfterEach
+    void stop() {
+        liveEventService.stopDispatcher();
+    }
+
+    // The container reports the disconnect while a write is still running, and that write then succeeds
+    @Test
+    void clientClosedDuringASendIsUnregistered() throws Exception {
+        ReflectionTestUtils.setField(liveEventService, "bufferSize", 32);
+        ReflectionTestUtils.setField(liveEventService, "maxSubscribers", 10);
+        SlowEmitter emitter = new SlowEmitter();
+        liveEventService.subscribe(emitter);
+        assertEquals(1, liveEventService.getSubscriberCount());
+
+        liveEventService.heartbeat();
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        emitter.completion.run();
+        assertEquals(1, liveEventService.getSubscriberCount());
+        emitter.release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (liveEventService.getSubscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, liveEventService.getSubscriberCount());
+    }
+
+    private static class SlowEmitter extends SseEmitter {
+
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable completion;
+
+        @Override
+        public void onCompletion(Runnable callback) {
+            completion = callback;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
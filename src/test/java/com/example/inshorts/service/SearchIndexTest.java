@@ -0,0 +1,152 @@
+package com.example.inshorts.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final long DAY = 86_400L;
+    private static final long HALF_LIFE = 3 * DAY;
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.index(1, "Election results announced", "Votes counted overnight", "The count finished at dawn.", NOW - DAY);
+        index.index(2, "Budget debate", "Parliament argues over the election budget", "Long content about taxes.", NOW - DAY);
+        index.index(3, "Cricket final", "A close match", "Rain delayed the election of the captain.", NOW - DAY);
+        index.index(4, "Electric cars", "Sales are up", "Battery prices keep falling.", NOW - 10 * DAY);
+    }
+
+    @Test
+    void titleMatchesOutrankSummaryAndContentMatches() {
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("election", 10, NOW, 0.0, HALF_LIFE)));
+    }
+
+    @Test
+    void recencyBreaksTiesTowardsNewerArticles() {
+        index.index(5, "Election results announced", "Votes counted overnight", "The count finished at dawn.", NOW - 20 * DAY);
+        List<Long> ranked = ids(index.search("election results", 2, NOW, 0.5, HALF_LIFE));
+        assertEquals(List.of(1L, 5L), ranked);
+    }
+
+    @Test
+    void replacedAndDeletedArticlesDropOut() {
+        index.index(1, "Weather report", "Sunny", "Warm all week.", NOW);
+        index.remove(2);
+        assertEquals(List.of(3L), ids(index.search("election", 10, NOW, 0.0, HALF_LIFE)));
+        assertEquals(List.of(1L), ids(index.search("sunny", 10, NOW, 0.0, HALF_LIFE)));
+
+        index.compact();
+        assertEquals(0.0, index.garbageRatio());
+        assertEquals(List.of(3L), ids(index.search("election", 10, NOW, 0.0, HALF_LIFE)));
+        assertEquals(3, index.size());
+    }
+
+    // An edit leaves a tombstone behind; a term in every article must still score positively and
+    // rank by how often it occurs
+    @Test
+    void editsKeepScoresOfCommonTermsPositive() {
+        SearchIndex edited = new SearchIndex();
+        edited.index(1, "Daily news", "News, news and more news", "", NOW);
+        edited.index(2, "Evening news", "Headlines", "", NOW);
+        edited.index(3, "Morning news", "Headlines", "", NOW);
+        edited.index(2, "Evening news", "Updated headlines", "", NOW);
+
+        List<SearchIndex.Hit> hits = edited.search("news", 10, NOW, 0.0, HALF_LIFE);
+        assertEquals(3, hits.size());
+        assertEquals(1L, hits.get(0).articleId());
+        for (SearchIndex.Hit hit : hits) {
+            assertTrue(hit.score() > 0, hit.toString());
+        }
+    }
+
+    // Document frequencies drop as docs are tombstoned, so scores match an index that never held
+    // the old versions, before and after compaction and across a snapshot
+    @Test
+    void tombstonesDoNotChangeScores() throws IOException {
+        SearchIndex edited = new SearchIndex();
+        edited.index(1, "Daily news", "Markets rally", "", NOW);
+        edited.index(2, "Evening news", "Markets fall", "", NOW);
+        edited.index(3, "Sports news", "Finals tonight", "", NOW);
+        edited.index(2, "Evening update", "Weather", "", NOW);
+        edited.remove(3);
+
+        SearchIndex fresh = new SearchIndex();
+        fresh.index(1, "Daily news", "Markets rally", "", NOW);
+        fresh.index(2, "Evening update", "Weather", "", NOW);
+
+        List<SearchIndex.Hit> expected = fresh.search("news markets evening", 10, NOW, 0.0, HALF_LIFE);
+        assertEquals(expected, edited.search("news markets evening", 10, NOW, 0.0, HALF_LIFE));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            edited.writeSnapshot(out);
+        }
+        SearchIndex restored = SearchIndex.readSnapshot(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(expected, restored.search("news markets evening", 10, NOW, 0.0, HALF_LIFE));
+
+        edited.compact();
+        assertEquals(expected, edited.search("news markets evening", 10, NOW, 0.0, HALF_LIFE));
+        edited.remove(1);
+        fresh.remove(1);
+        assertEquals(fresh.search("news evening", 10, NOW, 0.0, HALF_LIFE), edited.search("news evening", 10, NOW, 0.0, HALF_LIFE));
+    }
+
+    @Test
+    void suggestsTitlesByPrefixNewestFirst() {
+        assertEquals(List.of(1L, 4L), suggestionIds(index.suggest("ele", 10)));
+        assertEquals(List.of(1L), suggestionIds(index.suggest("election res", 10)));
+        assertEquals(List.of(), suggestionIds(index.suggest("e", 10)));
+        assertEquals("Electric cars", index.suggest("electric", 10).get(0).title());
+    }
+
+    @Test
+    void snapshotRoundTripKeepsResultsAndTombstones() throws IOException {
+        index.remove(3);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.writeSnapshot(out);
+        }
+        SearchIndex restored = SearchIndex.readSnapshot(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(index.search("election", 10, NOW, 0.5, HALF_LIFE), restored.search("election", 10, NOW, 0.5, HALF_LIFE));
+        assertEquals(index.suggest("ele", 10), restored.suggest("ele", 10));
+        assertEquals(3, restored.size());
+
+        // The restored index keeps accepting updates
+        restored.index(6, "Election night live", "", "", NOW);
+        assertTrue(ids(restored.search("election", 10, NOW, 0.0, HALF_LIFE)).contains(6L));
+    }
+
+    @Test
+    void postingsHandleLargeDocNumberGaps() {
+        SearchIndex sparse = new SearchIndex();
+        sparse.index(1, "Rare term zebra", "", "", NOW);
+        for (long id = 2; id < 3000; id++) {
+            sparse.index(id, "Common words " + id, "", "", NOW);
+        }
+        sparse.index(3000, "Another zebra", "", "", NOW);
+        assertEquals(List.of(1L, 3000L), ids(sparse.search("zebra", 10, NOW, 0.0, HALF_LIFE)).stream().sorted().toList());
+    }
+
+    private static List<Long> ids(List<SearchIndex.Hit> hits) {
+        return hits.stream().map(SearchIndex.Hit::articleId).toList();
+    }
+
+    private static List<Long> suggestionIds(List<SearchIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(SearchIndex.Suggestion::articleId).toList();
+    }
+}
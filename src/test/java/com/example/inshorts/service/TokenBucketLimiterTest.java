@@ -0,0 +1,55 @@
+package com.example.inshorts.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsTheBurstThenRefillsAtTheRate() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 60, 3);
+        long now = 1_000 * SECOND;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", now));
+        }
+        long wait = limiter.tryAcquire("alice", now);
+        assertEquals(SECOND, wait);
+
+        // One token per second comes back
+        assertEquals(0, limiter.tryAcquire("alice", now + wait));
+        assertTrue(limiter.tryAcquire("alice", now + wait) > 0);
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 60, 1);
+        long now = 1_000 * SECOND;
+
+        assertEquals(0, limiter.tryAcquire("alice", now));
+        assertTrue(limiter.tryAcquire("alice", now) > 0);
+        assertEquals(0, limiter.tryAcquire("bob", now));
+    }
+
+    @Test
+    void evictsOnlyRefilledBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 60, 5);
+        long now = 1_000 * SECOND;
+        limiter.tryAcquire("alice", now);
+        limiter.tryAcquire("bob", now + 10 * SECOND);
+
+        limiter.evictIdle(now + 5 * SECOND);
+        assertEquals(1, limiter.size());
+
+        // A fresh bucket starts full again
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", now + 5 * SECOND));
+        }
+    }
+}
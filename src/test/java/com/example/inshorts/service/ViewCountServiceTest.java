@@ -0,0 +1,59 @@
+package com.example.inshorts.service;
+
+import com.example.inshorts.model.Article;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A flush that fails partway through a batch must leave each view either written or pending, never both
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:view-counts;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "inshorts.views.flush-interval-ms=3600000"})
+@ActiveProfiles("benchmark")
+class ViewCountServiceTest {
+
+    @Autowired
+    private ViewCountService viewCountService;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void failedFlushRollsBackTheWholeBatch() {
+        Long first = article("Written first");
+        Long second = article("Overflows");
+        // The increment of the second row fails after the first row's has run
+        jdbcTemplate.update("UPDATE article SET view_count = ? WHERE id = ?", Integer.MAX_VALUE, second);
+
+        viewCountService.recordView(first);
+        viewCountService.recordView(second);
+        viewCountService.flush();
+
+        assertEquals(0, viewCount(first));
+        assertEquals(1, viewCountService.getPendingViews(first));
+        assertEquals(1, viewCountService.getPendingViews(second));
+
+        // Once the bad row is fixed, the retry writes each view exactly once
+        jdbcTemplate.update("UPDATE article SET view_count = 0 WHERE id = ?", second);
+        viewCountService.flush();
+        assertEquals(1, viewCount(first));
+        assertEquals(1, viewCount(second));
+        assertEquals(0, viewCountService.getPendingViews(first));
+    }
+
+    private Long article(String title) {
+        Article article = new Article();
+        article.setTitle(title);
+        return articleService.saveArticle(article).getId();
+    }
+
+    private int viewCount(Long id) {
+        return jdbcTemplate.queryForObject("SELECT view_count FROM article WHERE id = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,50 @@
+-- DDL that the first release's ddl-auto=update issued on MySQL, as Hibernate generated it from that
+-- release's entities (constraint names included). SchemaUpgradeTest starts from this, not from V1.
+-- The one change: content is clob, since H2 reads MySQL's longtext as a varchar.
+
+create table article (
+    view_count integer not null,
+    id bigint not null auto_increment,
+    published_at datetime(6),
+    summary varchar(500),
+    author varchar(255),
+    title varchar(255),
+    content clob,
+    primary key (id)
+) engine=InnoDB;
+
+create table article_likes (
+    article_id bigint not null,
+    user_id bigint not null,
+    primary key (article_id, user_id)
+) engine=InnoDB;
+
+create table comments (
+    article_id bigint not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    content varchar(500) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id bigint not null,
+    role varchar(255)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+alter table article_likes add constraint FK1wt0ww82gfxkuxw3ghxmp55xy foreign key (article_id) references article (id);
+alter table article_likes add constraint FKbtkgmxfbjkfelv3v7ty6mo3n8 foreign key (user_id) references users (id);
+alter table comments add constraint FKnwlc4xv9fm2swgesuas3uf3mo foreign key (article_id) references article (id);
+alter table comments add constraint FK8omq0tc18jd43bu5tjh6jvraq foreign key (user_id) references users (id);
+alter table user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users (id);